@@ -0,0 +1,59 @@
+package org.coffee.benchmark;
+
+import org.coffee.component.cycle.Cycle;
+import org.coffee.component.cycle.CyclePlanGenerator;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.intersection.CollisionMatrix;
+import org.coffee.component.intersection.IntersectionUtils;
+import org.coffee.component.route.Route;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConflictBenchmark {
+
+    @Param({"8", "32", "128", "512"})
+    int routeCount;
+
+    private List<Route> routes;
+    private int pair;
+
+    @Setup
+    public void setUp() throws IncorrectRoutesException {
+        routes = SyntheticIntersections.routes(routeCount, 42);
+    }
+
+    @Benchmark
+    public boolean isAllowedToGo() {
+        int size = routes.size();
+        pair = (pair + 1) % (size * size);
+        return IntersectionUtils.isAllowedToGo(routes.get(pair / size), routes.get(pair % size));
+    }
+
+    @Benchmark
+    public CollisionMatrix collisionMatrixConstruction() {
+        return new CollisionMatrix(routes);
+    }
+
+    @Benchmark
+    public List<Cycle> cyclePlanGeneration() {
+        return CyclePlanGenerator.generate(routes, 10);
+    }
+}
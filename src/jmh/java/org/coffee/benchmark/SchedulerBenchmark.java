@@ -0,0 +1,59 @@
+package org.coffee.benchmark;
+
+import org.coffee.component.intersection.CollisionMatrix;
+import org.coffee.component.route.Route;
+import org.coffee.component.scheduler.CompatibleSetScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One decision of the cycle-less scheduler over prepared random pressures.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+    private static final int PRESSURE_SETS = 1024;
+
+    @Param({"8", "32", "64", "128"})
+    int routeCount;
+
+    private CompatibleSetScheduler scheduler;
+    private int[][] pressures;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Route> routes = SyntheticIntersections.routes(routeCount, 42);
+        scheduler = new CompatibleSetScheduler(new CollisionMatrix(routes), 5);
+        var random = new Random(42);
+        pressures = new int[PRESSURE_SETS][routes.size()];
+        for (int[] set : pressures) {
+            for (int i = 0; i < set.length; i++) {
+                set[i] = random.nextInt(11);
+            }
+        }
+    }
+
+    @Benchmark
+    public long[] nextGreenSet() {
+        next = (next + 1) % PRESSURE_SETS;
+        return scheduler.nextGreenSet(pressures[next]);
+    }
+}
@@ -0,0 +1,25 @@
+package org.coffee.benchmark;
+
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.intersection.IntersectionEnvironment;
+import org.coffee.component.route.Route;
+import org.coffee.utils.IntersectionGenerator;
+import org.coffee.utils.IntersectionSpec;
+
+import java.util.List;
+
+final class SyntheticIntersections {
+
+    private SyntheticIntersections() {
+    }
+
+    // Four legs without conditional arrows, so the number of routes is exactly four times the lanes per leg
+    static List<Route> routes(int count, long seed) {
+        return routes(count, seed, IntersectionEnvironment.realTime());
+    }
+
+    static List<Route> routes(int count, long seed, IntersectionEnvironment environment) {
+        var spec = new IntersectionSpec(4, Math.max(1, count / 4), 0.5, 0, 0.25, WorkingMode.CYCLES, false);
+        return new IntersectionGenerator(seed, environment).generateRoutes("B", spec);
+    }
+}
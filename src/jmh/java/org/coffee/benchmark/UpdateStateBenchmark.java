@@ -0,0 +1,70 @@
+package org.coffee.benchmark;
+
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.cycle.CyclePlanGenerator;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.intersection.Intersection;
+import org.coffee.component.intersection.IntersectionEnvironment;
+import org.coffee.component.route.Route;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One state update decision. Timing is stubbed with a simulation clock and an inline light dispatcher,
+ * so yellow phases and pauses cost no real time and the benchmark measures the decision logic only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateStateBenchmark {
+
+    @Param({"8", "32", "128", "512"})
+    int routeCount;
+
+    @Param({"CYCLES_VARIABLE_TIME", "CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE", "INTELLIGENT"})
+    WorkingMode workingMode;
+
+    private Intersection intersection;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IncorrectRoutesException {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        var environment = IntersectionEnvironment.simulated(new SimulationClock());
+        List<Route> routes = SyntheticIntersections.routes(routeCount, 42, environment);
+        intersection = new Intersection("bench", "bench", routes,
+                CyclePlanGenerator.generate(routes, 10, environment.clock(), environment.dispatcher()), workingMode, environment);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public int updateState() throws InterruptedException {
+        return intersection.updateState();
+    }
+}
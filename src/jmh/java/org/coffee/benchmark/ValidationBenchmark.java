@@ -0,0 +1,76 @@
+package org.coffee.benchmark;
+
+import org.coffee.component.cycle.Cycle;
+import org.coffee.component.cycle.CyclePlanGenerator;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.intersection.CollisionMatrix;
+import org.coffee.component.route.Route;
+import org.coffee.component.route.RouteValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"8", "32", "128", "512"})
+    int routeCount;
+
+    private List<Route> routes;
+    private List<Cycle> cycles;
+    private CollisionMatrix collisionMatrix;
+    private int next;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IncorrectRoutesException {
+        routes = SyntheticIntersections.routes(routeCount, 42);
+        cycles = CyclePlanGenerator.generate(routes, 10);
+        collisionMatrix = new CollisionMatrix(routes);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Route validateRoute() {
+        Route route = routes.get(next++ % routes.size());
+        RouteValidator.validateRoute(route);
+        return route;
+    }
+
+    @Benchmark
+    public int cycleValidation() {
+        int conflictFree = 0;
+        for (Cycle cycle : cycles) {
+            if (collisionMatrix.isConflictFree(cycle.getRoutes())) {
+                conflictFree++;
+            }
+        }
+        return conflictFree;
+    }
+}
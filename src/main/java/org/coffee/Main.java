@@ -1,12 +1,32 @@
 package org.coffee;
 
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.clock.SimulationClock;
 import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.event.SignalEventLog;
+import org.coffee.component.journal.SignalJournal;
 import org.coffee.component.intersection.Intersection;
+import org.coffee.runtime.IntersectionRuntime;
+import org.coffee.simulation.Simulation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
 
 import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
 
 public class Main {
+    private static final long SIMULATION_SEED = 42;
+    private static final String JOURNAL_DIRECTORY = System.getProperty("traffic.journal.dir");
+    private static final int JOURNAL_SEGMENT_SIZE = Integer.getInteger("traffic.journal.segmentSize", 64 * 1024 * 1024);
+    private static final long JOURNAL_FLUSH_MILLIS = Long.getLong("traffic.journal.flushMillis", 1000);
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("simulate")) {
+            simulateWorkingModes();
+            return;
+        }
 
         Intersection intersection;
         try {
@@ -15,27 +35,50 @@ public class Main {
             System.out.println(e.getMessage());
             return;
         }
-        runIntersection(intersection);
+
+        SignalJournal journal = null;
+        if (JOURNAL_DIRECTORY != null) {
+            try {
+                journal = new SignalJournal(Path.of(JOURNAL_DIRECTORY), JOURNAL_SEGMENT_SIZE, Duration.ofMillis(JOURNAL_FLUSH_MILLIS));
+                SignalEventLog.getDefault().setJournal(journal);
+            } catch (IOException e) {
+                System.out.println("Cannot open signal journal: " + e.getMessage());
+                return;
+            }
+        }
+
+        IntersectionRuntime runtime = new IntersectionRuntime();
+        SignalJournal openedJournal = journal;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            runtime.stop();
+            flush(openedJournal);
+        }));
+        runtime.start(intersection);
+        runtime.awaitTermination();
+        runtime.stop();
+        flush(openedJournal);
+    }
+
+    // The journal is fed by the event log, so it is forced after the log has drained
+    private static void flush(SignalJournal journal) {
+        SignalEventLog.getDefault().flush();
+        if (journal != null) {
+            journal.flush();
+        }
     }
 
-    public static void runIntersection(Intersection intersection) {
-        while (true) {
+    private static void simulateWorkingModes() {
+        for (WorkingMode workingMode : WorkingMode.values()) {
             try {
-                int greenTime = intersection.updateState();
-                System.out.println("Intersection " + intersection.getName() + " will be green for " + greenTime + " seconds");
-                Thread.sleep(greenTime * 1000);
-            } catch (IllegalStateException e) {
-                System.out.println("Intersection " + intersection.getName() + " has no more cycles");
-                break;
-            } catch (InterruptedException e) {
-                System.out.println("Thread was interrupted, Failed to updateState on intersection:" + intersection.getName());
-                break;
-            } catch (Exception e) {
-                System.out.println("Error running intersection: " + e.getMessage());
-                break;
+                Simulation simulation = new Simulation(new SimulationClock());
+                Intersection intersection = createComplexIntersection(workingMode, new Random(SIMULATION_SEED), simulation.environment());
+                System.out.println(simulation.run(intersection, Duration.ofHours(24)));
+                var metrics = intersection.getMetrics().snapshot();
+                System.out.println("  decision time [us]: " + metrics.decisionTimeMicros());
+                System.out.println("  route waiting [ms]: " + metrics.waitingMillis());
+            } catch (IncorrectRoutesException | InterruptedException e) {
+                System.out.println("Simulation of mode " + workingMode + " failed: " + e.getMessage());
             }
         }
-        System.out.println("Intersection " + intersection.getName() + " has disabled, set to blinking yellow");
-        intersection.defaultSignal();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package org.coffee.component.attribute;
+
+public enum ControlMode {
+    AUTOMATIC,
+    HOLD,
+    FLASH,
+    PREEMPTION
+}
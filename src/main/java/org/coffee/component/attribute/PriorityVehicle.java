@@ -0,0 +1,7 @@
+package org.coffee.component.attribute;
+
+public enum PriorityVehicle {
+    BUS,
+    TRAM,
+    BICYCLE
+}
@@ -0,0 +1,30 @@
+package org.coffee.component.clock;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of time for the controller. All waiting done by intersections, cycles and lights goes through the clock,
+ * so the same logic can run in real time or in a discrete-event simulation.
+ */
+public interface Clock {
+
+    long millis();
+
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * Runs given action after a delay, without blocking the caller.
+     */
+    CompletableFuture<Void> schedule(long delayMillis, Runnable action);
+
+    /**
+     * Waits until the future is completed and returns its result.
+     */
+    <T> T await(CompletableFuture<T> future);
+
+    /**
+     * Waits until the future is completed or the timeout passes, whichever comes first, without scheduling anything.
+     * Returns true when the future is completed.
+     */
+    boolean await(CompletableFuture<?> future, long timeoutMillis) throws InterruptedException;
+}
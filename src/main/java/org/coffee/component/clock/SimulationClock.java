@@ -0,0 +1,95 @@
+package org.coffee.component.clock;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Virtual time for discrete-event simulation. Nothing really waits: sleeping and awaiting run pending events in
+ * time order and move the clock forward. Must be used from a single thread, together with a light command
+ * dispatcher that executes commands in the calling thread.
+ */
+public class SimulationClock implements Clock {
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private long now;
+    private long sequence;
+
+    public SimulationClock() {
+        this(0);
+    }
+
+    public SimulationClock(long startMillis) {
+        this.now = startMillis;
+    }
+
+    @Override
+    public long millis() {
+        return now;
+    }
+
+    @Override
+    public void sleep(long millis) {
+        advanceTo(now + millis);
+    }
+
+    @Override
+    public CompletableFuture<Void> schedule(long delayMillis, Runnable action) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        events.add(new Event(now + Math.max(0, delayMillis), sequence++, () -> {
+            try {
+                action.run();
+                future.complete(null);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }));
+        return future;
+    }
+
+    @Override
+    public <T> T await(CompletableFuture<T> future) {
+        while (!future.isDone()) {
+            Event event = events.poll();
+            if (event == null) {
+                throw new IllegalStateException("Simulation has no pending events, awaited action can never complete");
+            }
+            run(event);
+        }
+        return future.join();
+    }
+
+    @Override
+    public boolean await(CompletableFuture<?> future, long timeoutMillis) {
+        long deadline = now + Math.max(0, timeoutMillis);
+        while (!future.isDone() && !events.isEmpty() && events.peek().time() <= deadline) {
+            run(events.poll());
+        }
+        if (!future.isDone()) {
+            now = Math.max(now, deadline);
+        }
+        return future.isDone();
+    }
+
+    public int getPendingEvents() {
+        return events.size();
+    }
+
+    private void advanceTo(long target) {
+        while (!events.isEmpty() && events.peek().time() <= target) {
+            run(events.poll());
+        }
+        now = target;
+    }
+
+    private void run(Event event) {
+        now = Math.max(now, event.time());
+        event.action().run();
+    }
+
+    private record Event(long time, long sequence, Runnable action) implements Comparable<Event> {
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
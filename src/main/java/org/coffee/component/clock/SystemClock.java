@@ -0,0 +1,66 @@
+package org.coffee.component.clock;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Wall-clock time. Scheduled actions run on one shared timer thread, so waiting for them never occupies a thread.
+ */
+public class SystemClock implements Clock {
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "traffic-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SystemClock() {
+    }
+
+    @Override
+    public long millis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    @Override
+    public CompletableFuture<Void> schedule(long delayMillis, Runnable action) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        timer.schedule(() -> {
+            try {
+                action.run();
+                future.complete(null);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    @Override
+    public <T> T await(CompletableFuture<T> future) {
+        return future.join();
+    }
+
+    @Override
+    public boolean await(CompletableFuture<?> future, long timeoutMillis) throws InterruptedException {
+        try {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException | CancellationException e) {
+            // completed, the caller only waits for completion
+        }
+        return true;
+    }
+}
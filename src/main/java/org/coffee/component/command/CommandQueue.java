@@ -0,0 +1,58 @@
+package org.coffee.component.command;
+
+import org.coffee.component.clock.Clock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Commands waiting for the single thread that updates an intersection. Any thread can submit without locking: the
+ * command is appended to a lock-free queue and whoever drives the intersection is woken, either through the waker
+ * registered by the runtime or by completion of the {@link #arrival()} future the intersection waits on. The future
+ * returned on submit completes when the command has been applied, or exceptionally when it was rejected.
+ */
+public class CommandQueue {
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<CompletableFuture<Void>> arrival = new AtomicReference<>(new CompletableFuture<>());
+    private volatile Runnable waker;
+    private final Clock clock;
+
+    public CommandQueue(Clock clock) {
+        this.clock = clock;
+    }
+
+    public CompletableFuture<Void> submit(IntersectionCommand command) {
+        var submitted = new Pending(command, clock.millis(), new CompletableFuture<>());
+        pending.offer(submitted);
+        arrival.getAndSet(new CompletableFuture<>()).complete(null);
+        Runnable current = waker;
+        if (current != null) {
+            current.run();
+        }
+        return submitted.acknowledged();
+    }
+
+    /**
+     * Completes on the next submit. Take it before checking {@link #isEmpty()}, so a command submitted in between
+     * is not missed.
+     */
+    public CompletableFuture<Void> arrival() {
+        return arrival.get();
+    }
+
+    public void onSubmit(Runnable waker) {
+        this.waker = waker;
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public Pending poll() {
+        return pending.poll();
+    }
+
+    public record Pending(IntersectionCommand command, long submittedMillis, CompletableFuture<Void> acknowledged) {
+    }
+}
@@ -0,0 +1,58 @@
+package org.coffee.component.command;
+
+import org.coffee.component.cycle.Cycle;
+import org.coffee.component.route.Route;
+import org.coffee.component.transit.PriorityRequest;
+
+import java.util.List;
+
+/**
+ * Manual override of a running intersection, e.g. by the police. Commands are submitted to the
+ * {@link CommandQueue} of the intersection and applied by the thread updating it.
+ */
+public sealed interface IntersectionCommand {
+
+    /**
+     * Switches to the cycle with the given id and holds it until {@link Resume}.
+     */
+    record ForceCycle(String cycleId) implements IntersectionCommand {
+    }
+
+    /**
+     * Keeps the current cycle green until {@link Resume}.
+     */
+    record Hold() implements IntersectionCommand {
+    }
+
+    /**
+     * Gives green to the route as fast as possible, e.g. for an emergency vehicle, and holds it until {@link Resume}.
+     * Routes conflicting with it are stopped, compatible routes of the current cycle stay green.
+     */
+    record Preempt(Route route) implements IntersectionCommand {
+    }
+
+    /**
+     * Queues a priority vehicle. It is served by green extension or early green when its arrival is near enough.
+     */
+    record RequestPriority(PriorityRequest request) implements IntersectionCommand {
+    }
+
+    /**
+     * Switches all lights to the default signal until {@link Resume}.
+     */
+    record Flash() implements IntersectionCommand {
+    }
+
+    /**
+     * Returns to the working mode of the intersection. After flashing all routes are stopped first, after preemption
+     * cycles that waited through it are served first.
+     */
+    record Resume() implements IntersectionCommand {
+    }
+
+    /**
+     * Replaces the cycles of the intersection. The current cycle stays green until the next decision.
+     */
+    record ReloadPlan(List<Cycle> cycles) implements IntersectionCommand {
+    }
+}
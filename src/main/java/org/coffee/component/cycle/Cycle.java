@@ -1,10 +1,16 @@
 package org.coffee.component.cycle;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.coffee.component.clock.Clock;
+import org.coffee.component.clock.SystemClock;
+import org.coffee.component.light.LightCommand;
+import org.coffee.component.light.LightCommandDispatcher;
 import org.coffee.component.route.Route;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import static org.coffee.component.attribute.RouteType.CONDITIONAL;
 
@@ -13,29 +19,35 @@ public class Cycle {
     private final String id;
     private final List<Route> routes;
     private final int greenTime;
+    @Getter(AccessLevel.NONE)
+    private final Clock clock;
+    @Getter(AccessLevel.NONE)
+    private final LightCommandDispatcher dispatcher;
 
     public Cycle(String id, List<Route> routes, Integer greenTime) {
+        this(id, routes, greenTime, SystemClock.INSTANCE, LightCommandDispatcher.getDefault());
+    }
+
+    public Cycle(String id, List<Route> routes, Integer greenTime, Clock clock, LightCommandDispatcher dispatcher) {
         this.id = id;
         this.routes = routes;
         this.greenTime = greenTime;
+        this.clock = clock;
+        this.dispatcher = dispatcher;
     }
 
     public void allowTraffic() {
         if (isAllowingConditionalTraffic()) {
             stopTrafficForConditionalRoutes();
         }
-        List<CompletableFuture<Void>> futures = routes.stream()
+        dispatch(routes.stream()
                 .filter(route -> !route.getType().equals(CONDITIONAL))
-                .map(route -> CompletableFuture.runAsync(route::allowTraffic))
-                .toList();
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+                .map(Route::getAllowCommands));
     }
 
     public void stopTraffic() {
-        List<CompletableFuture<Void>> futures = routes.stream()
-                .map(route -> CompletableFuture.runAsync(route::stopTraffic))
-                .toList();
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        dispatch(routes.stream()
+                .map(Route::getStopCommands));
     }
 
     public void defaultSignal() {
@@ -53,19 +65,21 @@ public class Cycle {
         if (isAllowingNormalTraffic()) {
             throw new IllegalStateException("Normal traffic is going, cannot allow conditional routes");
         }
-        List<CompletableFuture<Void>> futures = routes.stream()
+        dispatch(routes.stream()
                 .filter(route -> route.getType().equals(CONDITIONAL))
-                .map(route -> CompletableFuture.runAsync(route::allowTraffic))
-                .toList();
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+                .map(Route::getAllowCommands));
     }
 
     public void stopTrafficForConditionalRoutes() {
-        List<CompletableFuture<Void>> futures = routes.stream()
+        dispatch(routes.stream()
                 .filter(route -> route.getType().equals(CONDITIONAL))
-                .map(route -> CompletableFuture.runAsync(route::stopTraffic))
-                .toList();
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+                .map(Route::getStopCommands));
+    }
+
+    private void dispatch(Stream<List<LightCommand>> commands) {
+        List<LightCommand> batch = new ArrayList<>();
+        commands.forEach(batch::addAll);
+        clock.await(dispatcher.dispatch(batch));
     }
 
     private boolean isAllowingNormalTraffic() {
@@ -0,0 +1,117 @@
+package org.coffee.component.cycle;
+
+import org.coffee.component.clock.Clock;
+import org.coffee.component.clock.SystemClock;
+import org.coffee.component.intersection.CollisionMatrix;
+import org.coffee.component.light.LightCommandDispatcher;
+import org.coffee.component.route.Route;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates cycles covering all routes of an intersection. Routes are colored in the conflict graph with
+ * the DSatur heuristic, so every color becomes one cycle and the number of cycles is kept small.
+ * Afterwards every route is also added to each other cycle it is compatible with, to give it more green time.
+ */
+public class CyclePlanGenerator {
+
+    public static List<Cycle> generate(List<Route> routes, int greenTime) {
+        return generate(new CollisionMatrix(routes), greenTime);
+    }
+
+    public static List<Cycle> generate(CollisionMatrix collisionMatrix, int greenTime) {
+        return generate(collisionMatrix, greenTime, SystemClock.INSTANCE, LightCommandDispatcher.getDefault());
+    }
+
+    public static List<Cycle> generate(List<Route> routes, int greenTime, Clock clock, LightCommandDispatcher dispatcher) {
+        return generate(new CollisionMatrix(routes), greenTime, clock, dispatcher);
+    }
+
+    public static List<Cycle> generate(CollisionMatrix collisionMatrix, int greenTime, Clock clock, LightCommandDispatcher dispatcher) {
+        List<long[]> colorClasses = colorConflictGraph(collisionMatrix);
+        colorClasses.forEach(colorClass -> extend(collisionMatrix, colorClass));
+
+        List<Cycle> cycles = new ArrayList<>(colorClasses.size());
+        for (int color = 0; color < colorClasses.size(); color++) {
+            cycles.add(new Cycle("C" + (color + 1), routesOf(collisionMatrix, colorClasses.get(color)), greenTime, clock, dispatcher));
+        }
+        return cycles;
+    }
+
+    private static List<long[]> colorConflictGraph(CollisionMatrix collisionMatrix) {
+        int size = collisionMatrix.size();
+        int words = collisionMatrix.words();
+        int[] colors = new int[size];
+        int[] saturation = new int[size];
+        int[] degree = new int[size];
+        long[][] neighbourColors = new long[size][CollisionMatrix.wordsFor(size + 1)];
+        List<long[]> colorClasses = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            colors[i] = -1;
+            long[] compatible = collisionMatrix.compatibleWith(i);
+            for (int word = 0; word < words; word++) {
+                degree[i] += Long.bitCount(~compatible[word] & validBits(size, word));
+            }
+        }
+
+        for (int colored = 0; colored < size; colored++) {
+            int route = -1;
+            for (int i = 0; i < size; i++) {
+                if (colors[i] < 0 && (route < 0 || saturation[i] > saturation[route]
+                        || (saturation[i] == saturation[route] && degree[i] > degree[route]))) {
+                    route = i;
+                }
+            }
+
+            int color = lowestFreeColor(neighbourColors[route]);
+            if (color == colorClasses.size()) {
+                colorClasses.add(new long[words]);
+            }
+            colors[route] = color;
+            colorClasses.get(color)[route >>> 6] |= 1L << route;
+
+            for (int i = 0; i < size; i++) {
+                if (colors[i] < 0 && !collisionMatrix.isCompatible(route, i)
+                        && (neighbourColors[i][color >>> 6] & (1L << color)) == 0) {
+                    neighbourColors[i][color >>> 6] |= 1L << color;
+                    saturation[i]++;
+                }
+            }
+        }
+        return colorClasses;
+    }
+
+    private static void extend(CollisionMatrix collisionMatrix, long[] colorClass) {
+        for (int i = 0; i < collisionMatrix.size(); i++) {
+            if ((colorClass[i >>> 6] & (1L << i)) == 0 && collisionMatrix.canJoin(colorClass, i)) {
+                colorClass[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    private static int lowestFreeColor(long[] usedColors) {
+        for (int word = 0; word < usedColors.length; word++) {
+            if (usedColors[word] != -1L) {
+                return (word << 6) + Long.numberOfTrailingZeros(~usedColors[word]);
+            }
+        }
+        throw new IllegalStateException("No free color left");
+    }
+
+    private static long validBits(int size, int word) {
+        int bits = Math.min(64, size - (word << 6));
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+    private static List<Route> routesOf(CollisionMatrix collisionMatrix, long[] set) {
+        List<Route> routes = new ArrayList<>();
+        for (int i = 0; i < collisionMatrix.size(); i++) {
+            if ((set[i >>> 6] & (1L << i)) != 0) {
+                routes.add(collisionMatrix.route(i));
+            }
+        }
+        return routes;
+    }
+}
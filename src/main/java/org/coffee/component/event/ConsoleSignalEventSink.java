@@ -0,0 +1,30 @@
+package org.coffee.component.event;
+
+import org.coffee.component.attribute.Color;
+
+import java.io.PrintStream;
+
+public class ConsoleSignalEventSink implements SignalEventSink {
+    private final PrintStream out;
+    private final StringBuilder line = new StringBuilder(128);
+
+    public ConsoleSignalEventSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void accept(long timestamp, SignalEventType type, String intersection, String source, Color oldColor, Color newColor) {
+        line.setLength(0);
+        line.append('[').append(timestamp).append("] ");
+        if (intersection != null) {
+            line.append("Intersection ").append(intersection).append(' ');
+        }
+        switch (type) {
+            case LIGHT_SWITCHED -> line.append("traffic light ").append(source).append(" switched from ").append(oldColor).append(" to ").append(newColor);
+            case LIGHT_BLINKING -> line.append("traffic light ").append(source).append(" blinking ").append(newColor);
+            case CYCLE_STARTED -> line.append("started cycle ").append(source);
+            case CYCLE_ENDED -> line.append("ended cycle ").append(source);
+        }
+        out.println(line);
+    }
+}
@@ -0,0 +1,228 @@
+package org.coffee.component.event;
+
+import org.coffee.component.attribute.Color;
+import org.coffee.component.light.TrafficLight;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Log of signal changes. Producers claim a slot of a pre-allocated ring buffer with a single CAS and fill it with
+ * primitive fields and references to existing ids, so logging does not lock or allocate. A single daemon thread
+ * drains the buffer in order into a {@link SignalEventSink}. When the buffer is full the event is dropped and counted
+ * instead of blocking the light. Producers stamp events with the time of their own clock. Capacity of the default log
+ * is read from {@code traffic.eventLog.capacity}. A journal gets its own buffer and writer thread that never drop:
+ * when the journal falls a whole buffer behind, producers wait for it.
+ */
+public class SignalEventLog implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = Integer.getInteger("traffic.eventLog.capacity", 1 << 16);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final Color[] COLORS = Color.values();
+    private static final SignalEventType[] TYPES = SignalEventType.values();
+
+    private static volatile SignalEventLog defaultLog;
+
+    private final int mask;
+    private final long[] timestamps;
+    private final byte[] types;
+    private final byte[] oldColors;
+    private final byte[] newColors;
+    private final String[] intersections;
+    private final String[] sources;
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final LongAdder dropped = new LongAdder();
+    private final SignalEventSink sink;
+    private final boolean lossless;
+    private volatile SignalEventLog journal;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public SignalEventLog(int capacity, SignalEventSink sink) {
+        this(capacity, sink, false, "signal-event-writer");
+    }
+
+    private SignalEventLog(int capacity, SignalEventSink sink, boolean lossless, String writerName) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.timestamps = new long[size];
+        this.types = new byte[size];
+        this.oldColors = new byte[size];
+        this.newColors = new byte[size];
+        this.intersections = new String[size];
+        this.sources = new String[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.sink = sink;
+        this.lossless = lossless;
+        this.writer = new Thread(this::drainContinuously, writerName);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static SignalEventLog getDefault() {
+        if (defaultLog == null) {
+            synchronized (SignalEventLog.class) {
+                if (defaultLog == null) {
+                    defaultLog = new SignalEventLog(DEFAULT_CAPACITY, new ConsoleSignalEventSink(System.out));
+                }
+            }
+        }
+        return defaultLog;
+    }
+
+    public static void setDefault(SignalEventLog log) {
+        defaultLog = log;
+    }
+
+    /**
+     * Sets a second sink, e.g. an audit journal, that receives every event through a separate buffer of the same
+     * capacity and its own writer thread. Unlike the sink it never misses an event: a full journal buffer makes
+     * producers wait. Null removes it after passing it the events already published.
+     */
+    public synchronized void setJournal(SignalEventSink journal) {
+        SignalEventLog previous = this.journal;
+        this.journal = journal == null ? null : new SignalEventLog(getCapacity(), journal, true, "signal-journal-writer");
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    public void lightSwitched(long timestamp, TrafficLight light, Color oldColor, Color newColor) {
+        publish(timestamp, SignalEventType.LIGHT_SWITCHED, light.getIntersection(), light.getId(), oldColor, newColor);
+    }
+
+    public void lightBlinking(long timestamp, TrafficLight light, Color color) {
+        publish(timestamp, SignalEventType.LIGHT_BLINKING, light.getIntersection(), light.getId(), color, color);
+    }
+
+    public void cycleStarted(long timestamp, String intersection, String cycle) {
+        publish(timestamp, SignalEventType.CYCLE_STARTED, intersection, cycle, null, null);
+    }
+
+    public void cycleEnded(long timestamp, String intersection, String cycle) {
+        publish(timestamp, SignalEventType.CYCLE_ENDED, intersection, cycle, null, null);
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void publish(long timestamp, SignalEventType type, String intersection, String source, Color oldColor, Color newColor) {
+        append(timestamp, type, intersection, source, oldColor, newColor);
+        SignalEventLog recorder = journal;
+        if (recorder != null) {
+            recorder.append(timestamp, type, intersection, source, oldColor, newColor);
+        }
+    }
+
+    private void append(long timestamp, SignalEventType type, String intersection, String source, Color oldColor, Color newColor) {
+        long sequence;
+        while (true) {
+            sequence = tail.get();
+            if (sequence - head <= mask) {
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    break;
+                }
+            } else if (lossless && running) {
+                Thread.onSpinWait();
+            } else {
+                dropped.increment();
+                return;
+            }
+        }
+
+        int slot = (int) sequence & mask;
+        timestamps[slot] = timestamp;
+        types[slot] = (byte) type.ordinal();
+        intersections[slot] = intersection;
+        sources[slot] = source;
+        oldColors[slot] = encode(oldColor);
+        newColors[slot] = encode(newColor);
+        published.set(slot, sequence);
+    }
+
+    /**
+     * Blocks until every event published before the call has been passed to the sink and the journal.
+     */
+    public void flush() {
+        long target = tail.get();
+        while (head < target) {
+            if (drain() == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        SignalEventLog recorder = journal;
+        if (recorder != null) {
+            recorder.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        SignalEventLog recorder = journal;
+        if (recorder != null) {
+            recorder.close();
+        }
+    }
+
+    private void drainContinuously() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private synchronized int drain() {
+        int drained = 0;
+        long sequence = head;
+        while (true) {
+            int slot = (int) sequence & mask;
+            if (published.get(slot) != sequence) {
+                break;
+            }
+            deliver(sink, slot);
+            intersections[slot] = null;
+            sources[slot] = null;
+            head = ++sequence;
+            drained++;
+        }
+        return drained;
+    }
+
+    private void deliver(SignalEventSink target, int slot) {
+        try {
+            target.accept(timestamps[slot], TYPES[types[slot]], intersections[slot], sources[slot],
+                    decode(oldColors[slot]), decode(newColors[slot]));
+        } catch (RuntimeException e) {
+            dropped.increment();
+        }
+    }
+
+    private static byte encode(Color color) {
+        return color == null ? -1 : (byte) color.ordinal();
+    }
+
+    private static Color decode(byte color) {
+        return color < 0 ? null : COLORS[color];
+    }
+}
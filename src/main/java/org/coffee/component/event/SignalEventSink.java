@@ -0,0 +1,13 @@
+package org.coffee.component.event;
+
+import org.coffee.component.attribute.Color;
+
+/**
+ * Receives signal events from the writer thread of {@link SignalEventLog}. Colors are null for cycle events
+ * and the intersection is null for lights that are not part of any intersection.
+ */
+@FunctionalInterface
+public interface SignalEventSink {
+
+    void accept(long timestamp, SignalEventType type, String intersection, String source, Color oldColor, Color newColor);
+}
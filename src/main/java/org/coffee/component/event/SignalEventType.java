@@ -0,0 +1,5 @@
+package org.coffee.component.event;
+
+public enum SignalEventType {
+    LIGHT_SWITCHED, LIGHT_BLINKING, CYCLE_STARTED, CYCLE_ENDED
+}
@@ -0,0 +1,132 @@
+package org.coffee.component.intersection;
+
+import org.coffee.component.route.Route;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled form of the route compatibility rules. Every route gets a dense index (its position
+ * in the route list) and compatibility is kept as one bitset row per route, so checking whether
+ * a set of routes can be green together is a handful of word-wide operations.
+ * Two routes are compatible only if each of them is allowed to go together with the other.
+ */
+public class CollisionMatrix {
+    private final List<Route> routes;
+    private final Map<Route, Integer> indexes;
+    private final long[][] compatible;
+    private final int words;
+
+    public CollisionMatrix(List<Route> routes) {
+        this.routes = List.copyOf(routes);
+        this.indexes = new IdentityHashMap<>();
+        this.words = wordsFor(routes.size());
+        this.compatible = new long[routes.size()][words];
+        for (int i = 0; i < routes.size(); i++) {
+            indexes.putIfAbsent(routes.get(i), i);
+        }
+        for (int i = 0; i < routes.size(); i++) {
+            compatible[i][i >>> 6] |= 1L << i;
+            for (int j = i + 1; j < routes.size(); j++) {
+                if (IntersectionUtils.isAllowedToGo(routes.get(i), routes.get(j))
+                        && IntersectionUtils.isAllowedToGo(routes.get(j), routes.get(i))) {
+                    compatible[i][j >>> 6] |= 1L << j;
+                    compatible[j][i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    public static int wordsFor(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    public int words() {
+        return words;
+    }
+
+    public Route route(int index) {
+        return routes.get(index);
+    }
+
+    public List<Route> routes() {
+        return routes;
+    }
+
+    public int indexOf(Route route) {
+        Integer index = indexes.get(route);
+        if (index == null) {
+            throw new IllegalArgumentException("Route " + route.getId() + " is not part of the intersection");
+        }
+        return index;
+    }
+
+    public boolean contains(Route route) {
+        return indexes.containsKey(route);
+    }
+
+    public boolean isCompatible(int route1, int route2) {
+        return (compatible[route1][route2 >>> 6] & (1L << route2)) != 0;
+    }
+
+    public boolean isCompatible(Route route1, Route route2) {
+        return isCompatible(indexOf(route1), indexOf(route2));
+    }
+
+    /**
+     * Row of routes that can be green together with given route (the route itself included).
+     * The returned array is shared and must not be modified.
+     */
+    public long[] compatibleWith(int route) {
+        return compatible[route];
+    }
+
+    public long[] bitsetOf(Collection<Route> routes) {
+        long[] set = new long[words];
+        for (Route route : routes) {
+            int index = indexOf(route);
+            set[index >>> 6] |= 1L << index;
+        }
+        return set;
+    }
+
+    public boolean isConflictFree(Collection<Route> routes) {
+        return isConflictFree(bitsetOf(routes));
+    }
+
+    public boolean isConflictFree(long[] set) {
+        for (int word = 0; word < words; word++) {
+            long bits = set[word];
+            while (bits != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (!isSubsetOf(set, compatible[index])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true when given route can join already conflict-free set without breaking it.
+     */
+    public boolean canJoin(long[] set, int route) {
+        return isSubsetOf(set, compatible[route]);
+    }
+
+    private boolean isSubsetOf(long[] set, long[] superset) {
+        for (int word = 0; word < words; word++) {
+            if ((set[word] & ~superset[word]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,127 @@
+package org.coffee.component.intersection;
+
+import org.coffee.component.clock.Clock;
+import org.coffee.component.cycle.Cycle;
+import org.coffee.component.light.LightCommandDispatcher;
+import org.coffee.component.route.Route;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * Changes green from one cycle to the next following a {@link TransitionPlan}. Routes green in both cycles are not
+ * touched, leaving routes are stopped at once and every joining route starts its transition to green as soon as
+ * the stopped routes it conflicts with are red and their clearance time from the {@link IntergreenMatrix} has passed.
+ * A route not conflicting with any stopped route starts right away, there is no pause common to the whole intersection.
+ * Plans for every ordered pair of planned cycles are compiled up front, other cycles get a plan on each change.
+ */
+public class CycleTransition {
+    private final CollisionMatrix collisionMatrix;
+    private final IntergreenMatrix intergreenMatrix;
+    private final Map<Cycle, Integer> cycleIndexes = new IdentityHashMap<>();
+    private final TransitionPlan[] initialPlans;
+    private final TransitionPlan[][] plans;
+    private final Clock clock;
+    private final LightCommandDispatcher dispatcher;
+
+    public CycleTransition(CollisionMatrix collisionMatrix, IntergreenMatrix intergreenMatrix, List<Cycle> cycles,
+                           Clock clock, LightCommandDispatcher dispatcher) {
+        this.collisionMatrix = collisionMatrix;
+        this.intergreenMatrix = intergreenMatrix;
+        this.clock = clock;
+        this.dispatcher = dispatcher;
+        this.initialPlans = new TransitionPlan[cycles.size()];
+        this.plans = new TransitionPlan[cycles.size()][cycles.size()];
+        for (int next = 0; next < cycles.size(); next++) {
+            cycleIndexes.putIfAbsent(cycles.get(next), next);
+            initialPlans[next] = new TransitionPlan(collisionMatrix, intergreenMatrix, null, cycles.get(next));
+            for (int previous = 0; previous < cycles.size(); previous++) {
+                plans[previous][next] = new TransitionPlan(collisionMatrix, intergreenMatrix, cycles.get(previous), cycles.get(next));
+            }
+        }
+    }
+
+    public TransitionPlan plan(Cycle previous, Cycle next) {
+        Integer nextIndex = cycleIndexes.get(next);
+        if (nextIndex != null) {
+            if (previous == null) {
+                return initialPlans[nextIndex];
+            }
+            Integer previousIndex = cycleIndexes.get(previous);
+            if (previousIndex != null) {
+                return plans[previousIndex][nextIndex];
+            }
+        }
+        return new TransitionPlan(collisionMatrix, intergreenMatrix, previous, next);
+    }
+
+    /**
+     * Runs the plan and returns when all lights have finished their transitions.
+     */
+    public Times run(TransitionPlan plan) {
+        long start = clock.millis();
+        List<Route> stopping = plan.getStopping();
+        CompletableFuture<?>[] stops = new CompletableFuture<?>[stopping.size()];
+        for (int i = 0; i < stops.length; i++) {
+            stops[i] = stopping.get(i).stopTrafficAsync(dispatcher);
+        }
+        long[] stopEnd = {start};
+        List<CompletableFuture<?>> transitions = new ArrayList<>();
+        transitions.add(CompletableFuture.allOf(stops).thenRun(() -> stopEnd[0] = clock.millis()));
+        for (Route route : plan.getConditionalToStop()) {
+            if (route.isAllowingTraffic()) {
+                transitions.add(route.stopTrafficAsync(dispatcher));
+            }
+        }
+        // staying routes are compatible with both cycles, one that is not green any more is simply restored
+        for (Route route : plan.getStaying()) {
+            if (!route.isAllowingTraffic()) {
+                transitions.add(route.allowTrafficAsync(dispatcher));
+            }
+        }
+
+        long[] allowStart = {Long.MAX_VALUE};
+        List<Route> starting = plan.getStarting();
+        for (int i = 0; i < starting.size(); i++) {
+            Route route = starting.get(i);
+            transitions.add(clearance(plan, i, stops, clock).thenCompose(ignored -> {
+                synchronized (allowStart) {
+                    allowStart[0] = Math.min(allowStart[0], clock.millis());
+                }
+                return route.allowTrafficAsync(dispatcher);
+            }));
+        }
+        clock.await(CompletableFuture.allOf(transitions.toArray(new CompletableFuture<?>[0])));
+
+        long end = clock.millis();
+        return new Times(start, stopEnd[0], starting.isEmpty() ? end : allowStart[0], end);
+    }
+
+    // Completes when every stopped route conflicting with the starting one is red and the longest clearance has passed
+    private static CompletableFuture<Void> clearance(TransitionPlan plan, int starting, CompletableFuture<?>[] stops, Clock clock) {
+        int[] waitsFor = plan.waitsFor(starting);
+        if (waitsFor.length == 0) {
+            return completedFuture(null);
+        }
+        CompletableFuture<?>[] conflicting = new CompletableFuture<?>[waitsFor.length];
+        for (int i = 0; i < waitsFor.length; i++) {
+            conflicting[i] = stops[waitsFor[i]];
+        }
+        int delay = plan.clearance(starting);
+        return CompletableFuture.allOf(conflicting)
+                .thenCompose(ignored -> delay > 0 ? clock.schedule(delay, () -> {
+                }) : completedFuture(null));
+    }
+
+    /**
+     * Clock readings of a transition: stop transitions run from {@code stopStart} to {@code stopEnd}, the first
+     * allow transition starts at {@code allowStart} and the last light is done at {@code end}.
+     */
+    public record Times(long stopStart, long stopEnd, long allowStart, long end) {
+    }
+}
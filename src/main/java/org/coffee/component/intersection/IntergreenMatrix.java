@@ -0,0 +1,82 @@
+package org.coffee.component.intersection;
+
+import org.coffee.component.attribute.Location;
+import org.coffee.component.lane.LaneOutbound;
+import org.coffee.component.route.Route;
+
+import static org.coffee.component.attribute.Location.EAST;
+import static org.coffee.component.attribute.Location.NORTH;
+import static org.coffee.component.attribute.Location.SOUTH;
+import static org.coffee.component.attribute.Location.WEST;
+
+/**
+ * Clearance times between conflicting routes, computed together with the collision matrix. The value for a pair is
+ * the time from the end of the outgoing route's red transition until the incoming route may start its transition
+ * to green, long enough for the last vehicle to leave the conflict area. It depends on the longest movement of the
+ * outgoing route: right turns clear fastest, left turns cross the whole junction. Compatible routes need no clearance.
+ */
+public class IntergreenMatrix {
+    public static final int RIGHT_TURN_CLEARANCE = 500;
+    public static final int STRAIGHT_CLEARANCE = 1000;
+    public static final int LEFT_TURN_CLEARANCE = 1500;
+
+    private final int[][] millis;
+
+    public IntergreenMatrix(CollisionMatrix collisionMatrix) {
+        int size = collisionMatrix.size();
+        this.millis = new int[size][size];
+        for (int outgoing = 0; outgoing < size; outgoing++) {
+            int clearance = clearanceOf(collisionMatrix.route(outgoing));
+            for (int incoming = 0; incoming < size; incoming++) {
+                if (!collisionMatrix.isCompatible(outgoing, incoming)) {
+                    millis[outgoing][incoming] = clearance;
+                }
+            }
+        }
+    }
+
+    public int millis(int outgoing, int incoming) {
+        return millis[outgoing][incoming];
+    }
+
+    public int size() {
+        return millis.length;
+    }
+
+    private static int clearanceOf(Route route) {
+        Location from = route.getInboundLane().getLocation();
+        int clearance = 0;
+        for (LaneOutbound lane : route.getOutboundLanes()) {
+            Location to = lane.getLocation();
+            int movement;
+            if (to == rightOf(from)) {
+                movement = RIGHT_TURN_CLEARANCE;
+            } else if (to == oppositeOf(from)) {
+                movement = STRAIGHT_CLEARANCE;
+            } else {
+                movement = LEFT_TURN_CLEARANCE;
+            }
+            clearance = Math.max(clearance, movement);
+        }
+        return clearance;
+    }
+
+    // Location reached by turning right when coming from the given location
+    private static Location rightOf(Location location) {
+        return switch (location) {
+            case NORTH -> WEST;
+            case WEST -> SOUTH;
+            case SOUTH -> EAST;
+            case EAST -> NORTH;
+        };
+    }
+
+    private static Location oppositeOf(Location location) {
+        return switch (location) {
+            case NORTH -> SOUTH;
+            case SOUTH -> NORTH;
+            case EAST -> WEST;
+            case WEST -> EAST;
+        };
+    }
+}
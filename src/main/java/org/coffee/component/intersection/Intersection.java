@@ -1,52 +1,121 @@
 package org.coffee.component.intersection;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.attribute.ControlMode;
+import org.coffee.component.attribute.PriorityVehicle;
+import org.coffee.component.attribute.RouteType;
 import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.clock.Clock;
+import org.coffee.component.command.CommandQueue;
+import org.coffee.component.command.IntersectionCommand;
 import org.coffee.component.cycle.Cycle;
+import org.coffee.component.cycle.CyclePlanGenerator;
+import org.coffee.component.event.SignalEventLog;
+import org.coffee.component.light.LightStateBoard;
+import org.coffee.component.metrics.IntersectionMetrics;
 import org.coffee.component.route.Route;
 import org.coffee.component.route.RouteValidator;
+import org.coffee.component.safety.SafetyVerifier;
+import org.coffee.component.scheduler.CompatibleSetScheduler;
+import org.coffee.component.scheduler.CyclePriorityScheduler;
+import org.coffee.component.sensor.DemandEstimator;
+import org.coffee.component.sensor.DemandSignal;
+import org.coffee.component.sensor.SensorSnapshot;
+import org.coffee.component.transit.PriorityRequest;
+import org.coffee.component.transit.PriorityRequestQueue;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import static org.coffee.component.attribute.Color.GREEN;
 
 @Getter
 public class Intersection {
-    private final int PAUSE_TIME = 1500;
+    private static final int GENERATED_CYCLE_GREEN_TIME = 10;
+    private static final long SENSOR_TTL_MILLIS = Long.getLong("traffic.sensor.ttlMillis", 0);
+    private static final long TRANSIT_MAX_EXTENSION_MILLIS = Long.getLong("traffic.transit.maxExtensionMillis", 10_000);
+    private static final long TRANSIT_PASS_MILLIS = 2000;
     private final int MINIMUM_CYCLE_TIME = 5;
     private final int CYCLE_TIME_PER_CAR = 2;
     private final int MAX_AGE = 5;
     private final int PAUSE_TIME_BETWEEN_TRAFFIC_CHECKS = 1000;
+    private final int MANUAL_CONTROL_TIME = 60;
     private final String id;
     private final String name;
     private final List<Route> routes;
-    private final List<Cycle> cycles;
+    private List<Cycle> cycles;
     private final WorkingMode workingMode;
+    private final IntersectionEnvironment environment;
+    @Getter(AccessLevel.NONE)
+    private final Clock clock;
 
-    private Map<Route, List<Route>> collisionMatrix;
+    private CollisionMatrix collisionMatrix;
+    private CompatibleSetScheduler scheduler;
+    private CycleTransition transition;
+    private PreemptionPlans preemptionPlans;
+    private CyclePriorityScheduler cycleScheduler;
     private Queue<Cycle> cycleQueue;
     private Cycle currentCycle;
+    private int currentCycleIndex = -1;
+    private int[][] cycleRoutes;
+    private long[] currentGreenSet;
+    private int decisions;
+    private IntersectionMetrics metrics;
+    private SafetyVerifier safetyVerifier;
+    private LightStateBoard lightStates;
+    private int[][] routeLightSlots;
+    private long[] lightSnapshot;
+    private SensorSnapshot sensors;
+    private int[] routePressures;
+    private double[] routeDemands;
+    private DemandSignal demandSignal;
+    private long waitNanos;
+    private final CommandQueue commands;
+    private ControlMode controlMode = ControlMode.AUTOMATIC;
+    private long preemptionStart = -1;
+    private boolean decisionRequested;
+    private final PriorityRequestQueue priorityRequests = new PriorityRequestQueue(TRANSIT_PASS_MILLIS);
+    private long greenStart;
+    private long greenUntil;
+    private long regularGreenUntil;
 
     public Intersection(String id, String name, List<Route> routes, List<Cycle> cycles, WorkingMode workingMode) throws IncorrectRoutesException {
+        this(id, name, routes, cycles, workingMode, IntersectionEnvironment.realTime());
+    }
+
+    public Intersection(String id, String name, List<Route> routes, WorkingMode workingMode) throws IncorrectRoutesException {
+        this(id, name, routes, workingMode, IntersectionEnvironment.realTime());
+    }
+
+    public Intersection(String id, String name, List<Route> routes, WorkingMode workingMode, IntersectionEnvironment environment) throws IncorrectRoutesException {
+        this(id, name, routes, generateCycles(routes, environment), workingMode, environment);
+    }
+
+    public Intersection(String id, String name, List<Route> routes, List<Cycle> cycles, WorkingMode workingMode, IntersectionEnvironment environment) throws IncorrectRoutesException {
         this.id = id;
         this.name = name;
         this.routes = routes;
         this.cycles = cycles;
         this.workingMode = workingMode;
+        this.environment = environment;
+        this.clock = environment.clock();
+        this.commands = new CommandQueue(clock);
         initialize();
     }
 
+    private static List<Cycle> generateCycles(List<Route> routes, IntersectionEnvironment environment) {
+        routes.forEach(RouteValidator::validateRoute);
+        return CyclePlanGenerator.generate(routes, GENERATED_CYCLE_GREEN_TIME, environment.clock(), environment.dispatcher());
+    }
+
     private void fillCollisionMatrix() {
-        collisionMatrix = new HashMap<>();
-        for (var route : routes) {
-            List<Route> collisionRoutes = routes.stream()
-                    .filter(r -> IntersectionUtils.isAllowedToGo(route, r))
-                    .toList();
-            collisionMatrix.put(route, collisionRoutes);
-        }
+        collisionMatrix = new CollisionMatrix(routes);
     }
 
     private void initialize() throws IncorrectRoutesException {
@@ -57,89 +126,325 @@ public class Intersection {
         } catch (IllegalStateException e) {
             throw new IncorrectRoutesException(e.getMessage());
         }
-        cycleQueue = new LinkedList<>(cycles);
+        scheduler = new CompatibleSetScheduler(collisionMatrix, MAX_AGE);
+        initializeCycles();
+        metrics = new IntersectionMetrics(id, collisionMatrix);
+        safetyVerifier = new SafetyVerifier(id, collisionMatrix, () -> routes.forEach(Route::defaultSignal), clock);
+        sensors = new SensorSnapshot(routes, SENSOR_TTL_MILLIS, clock, environment.sampler());
+        routePressures = new int[routes.size()];
+        routeDemands = new double[routes.size()];
+        demandSignal = new DemandSignal(clock);
+        routes.forEach(route -> route.getInboundLane().getCamera().connect(demandSignal));
+        routes.forEach(route -> route.getTrafficLights().forEach(light -> light.assignTo(id)));
+        lightStates = new LightStateBoard(routes.stream().flatMap(route -> route.getTrafficLights().stream()).toList());
+        routeLightSlots = routes.stream()
+                .map(route -> route.getTrafficLights().stream().mapToInt(lightStates::slotOf).toArray())
+                .toArray(int[][]::new);
+        lightSnapshot = new long[LightStateBoard.words(lightStates.size())];
         System.out.println("Intersection " + name + " initialized");
         System.out.println("Numbers of routes in queue: " + cycleQueue.size());
     }
 
+    private void initializeCycles() {
+        cycleQueue = new LinkedList<>(cycles);
+        cycleScheduler = new CyclePriorityScheduler(cycles.size(), MAX_AGE);
+        IntergreenMatrix intergreenMatrix = new IntergreenMatrix(collisionMatrix);
+        transition = new CycleTransition(collisionMatrix, intergreenMatrix, cycles, clock, environment.dispatcher());
+        preemptionPlans = new PreemptionPlans(collisionMatrix, intergreenMatrix, cycles, MANUAL_CONTROL_TIME, clock, environment.dispatcher());
+        cycleRoutes = new int[cycles.size()][];
+        for (int i = 0; i < cycles.size(); i++) {
+            cycleRoutes[i] = cycles.get(i).getRoutes().stream().mapToInt(collisionMatrix::indexOf).toArray();
+        }
+        currentCycleIndex = cycleIndexOf(currentCycle);
+        if (currentCycleIndex >= 0) {
+            cycleQueue.remove(currentCycle);
+            cycleScheduler.select(currentCycleIndex);
+        }
+    }
+
     private void validateRoutes() {
         routes.forEach(RouteValidator::validateRoute);
     }
 
     private void validateCycles() throws IllegalStateException {
+        validateCycles(cycles);
+    }
+
+    private void validateCycles(List<Cycle> cycles) throws IllegalStateException {
        cycles.forEach(cycle -> {
            if (cycle.getRoutes().isEmpty()) {
                throw new IllegalStateException("Cycle " + cycle.getId() + " does not contain any routes");
            }
-           cycle.getRoutes().forEach(route -> validateRouteInCycle(cycle, route));
+           validateRoutesInCycle(cycle);
        });
     }
 
-    private void validateRouteInCycle(Cycle cycle, Route route) {
-        var goodRoutes = collisionMatrix.get(route);
-        var routesNotCollides = cycle.getRoutes().stream()
-                .filter(r -> r != route)
-                .allMatch(goodRoutes::contains);
-        if (!routesNotCollides) {
+    private void validateRoutesInCycle(Cycle cycle) {
+        cycle.getRoutes().forEach(route -> {
+            if (!collisionMatrix.contains(route)) {
+                throw new IllegalStateException("Cycle " + cycle.getId() + " contains route " + route.getId() + " that is not part of the intersection");
+            }
+        });
+        if (!collisionMatrix.isConflictFree(cycle.getRoutes())) {
             throw new IllegalStateException("Cycle " + cycle.getId() + " contains routes that cannot be green at the same time");
         }
     }
 
     public int updateState() throws InterruptedException {
-        return switch (workingMode) {
-            case CYCLES -> updateStateCycles();
-            case CYCLES_VARIABLE_TIME -> updateStateCyclesWithVariableTime();
-            case CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE -> updateStateCyclesWithVariableTimeAvoidEmptyCycles();
-            default -> -1;
-        };
+        if (safetyVerifier.isViolated()) {
+            throw new IllegalStateException("Intersection " + name + " stopped after conflicting routes were green together");
+        }
+        long start = System.nanoTime();
+        waitNanos = 0;
+        boolean applied = applyCommands();
+        int greenTime = controlMode != ControlMode.AUTOMATIC ? MANUAL_CONTROL_TIME : updateStateAutomatic(applied);
+        decisionRequested = false;
+        // decision time does not include light transitions and pauses
+        metrics.decided(System.nanoTime() - start - waitNanos);
+        return greenTime;
     }
 
-    public int updateStateCyclesWithVariableTime() throws InterruptedException {
-        stopCurrentCycle();
+    // A priority request taken during green does not end it unless the vehicle gets early green, other commands lead to a decision
+    private int updateStateAutomatic(boolean commandsApplied) throws InterruptedException {
+        long now = clock.millis();
+        boolean midGreen = commandsApplied && !decisionRequested && currentCycle != null && greenUntil - now >= 1000;
+        int greenTime = servePriority(midGreen);
+        if (greenTime < 0 && midGreen) {
+            greenTime = (int) ((greenUntil - now) / 1000);
+        }
+        if (greenTime < 0) {
+            greenTime = switch (workingMode) {
+                case CYCLES -> updateStateCycles();
+                case CYCLES_VARIABLE_TIME -> updateStateCyclesWithVariableTime();
+                case CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE -> updateStateCyclesWithVariableTimeAvoidEmptyCycles();
+                case INTELLIGENT -> updateStateIntelligent();
+            };
+            if (controlMode == ControlMode.AUTOMATIC) {
+                greenTime = limitForPriority(greenTime);
+                regularGreenUntil = clock.millis() + greenTime * 1000L;
+            }
+        }
+        greenUntil = clock.millis() + greenTime * 1000L;
+        return greenTime;
+    }
+
+    /**
+     * Queues a priority vehicle (bus, tram or bicycle) expected at the stop line of the route at the given time of
+     * the controller clock. When the arrival is at most {@code traffic.transit.maxExtensionMillis} away, a green route
+     * is extended until the vehicle passes and a red route gets green early, once the current cycle had its minimum
+     * green. Requests are served earliest arrival first.
+     */
+    public CompletableFuture<Void> requestPriority(Route route, PriorityVehicle vehicle, long arrivalMillis) {
+        return commands.submit(new IntersectionCommand.RequestPriority(new PriorityRequest(route, vehicle, arrivalMillis)));
+    }
+
+    // Returns green time when the earliest request in reach was served, or -1 to continue as usual
+    private int servePriority(boolean midGreen) throws InterruptedException {
+        long now = clock.millis();
+        priorityRequests.expire(now);
+        for (PriorityRequest request : priorityRequests.requests()) {
+            if (request.arrivalMillis() - TRANSIT_MAX_EXTENSION_MILLIS > now) {
+                return -1;
+            }
+            long passed = request.arrivalMillis() + TRANSIT_PASS_MILLIS;
+            int route = collisionMatrix.indexOf(request.route());
+            if (currentCycle != null && isAllowingTraffic(request.route())) {
+                long greenEnd = midGreen ? greenUntil : now;
+                if (passed > greenEnd && passed > regularGreenUntil + TRANSIT_MAX_EXTENSION_MILLIS) {
+                    continue;
+                }
+                long saved = passed <= greenEnd ? 0 : metrics.expectedRedMillis(route, request.arrivalMillis());
+                priorityRequests.remove(request);
+                metrics.transitServed(0, saved);
+                if (passed > greenEnd) {
+                    System.out.println("Intersection " + name + " extends green of " + request.route().getId() + " for " + request.vehicle());
+                }
+                return seconds(Math.max(greenEnd, passed) - now);
+            }
+            if (midGreen && now - greenStart < MINIMUM_CYCLE_TIME * 1000L) {
+                return seconds(greenStart + MINIMUM_CYCLE_TIME * 1000L - now);
+            }
+            int cycle = firstCycleServing(request.route());
+            if (cycle < 0) {
+                continue;
+            }
+            long expectedRed = metrics.expectedRedMillis(route, request.arrivalMillis());
+            priorityRequests.remove(request);
+            System.out.println("Intersection " + name + " gives early green to " + request.route().getId() + " for " + request.vehicle());
+            jumpTo(cycle);
+            long delay = Math.max(0, clock.millis() - request.arrivalMillis());
+            metrics.transitServed(delay, Math.max(0, expectedRed - delay));
+            int greenTime = Math.max(MINIMUM_CYCLE_TIME, seconds(passed - clock.millis()));
+            regularGreenUntil = clock.millis() + greenTime * 1000L;
+            return greenTime;
+        }
+        return -1;
+    }
+
+    // Green of a cycle not serving the earliest red request ends in time to give it early green
+    private int limitForPriority(int greenTime) {
+        for (PriorityRequest request : priorityRequests.requests()) {
+            if (!isAllowingTraffic(request.route())) {
+                long reach = request.arrivalMillis() - TRANSIT_MAX_EXTENSION_MILLIS - clock.millis();
+                return Math.min(greenTime, Math.max(MINIMUM_CYCLE_TIME, seconds(reach)));
+            }
+        }
+        return greenTime;
+    }
+
+    // All lights of the route read from one consistent state of the board, without locking any light
+    private boolean isAllowingTraffic(Route route) {
+        lightStates.read(lightSnapshot);
+        for (int slot : routeLightSlots[collisionMatrix.indexOf(route)]) {
+            if (LightStateBoard.color(lightSnapshot, slot) != GREEN) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Waiting for traffic ends when the next priority request comes in reach
+    private long untilPriorityInReach(long timeoutMillis) {
+        long now = clock.millis();
+        for (PriorityRequest request : priorityRequests.requests()) {
+            long reach = request.arrivalMillis() - TRANSIT_MAX_EXTENSION_MILLIS - now;
+            if (reach > 0) {
+                return Math.min(timeoutMillis, reach);
+            }
+        }
+        return timeoutMillis;
+    }
 
-        currentCycle = cycleQueue.poll();
-        if (currentCycle == null) {
+    private int firstCycleServing(Route route) {
+        for (int i = 0; i < cycles.size(); i++) {
+            if (cycles.get(i).getRoutes().contains(route)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int seconds(long millis) {
+        return (int) ((millis + 999) / 1000);
+    }
+
+    public int updateStateIntelligent() throws InterruptedException {
+        int maxPressure = 0;
+        sensors.refresh();
+        for (int i = 0; i < routePressures.length; i++) {
+            routePressures[i] = sensors.routePressure(i);
+            routeDemands[i] = sensors.routeEstimator(i).getSmoothed();
+        }
+        long[] greenSet = scheduler.nextGreenSet(routePressures, routeDemands);
+        for (int i = 0; i < routePressures.length; i++) {
+            if ((greenSet[i >>> 6] & (1L << i)) != 0) {
+                maxPressure = Math.max(maxPressure, Math.max(routePressures[i], (int) Math.ceil(routeDemands[i])));
+            }
+        }
+        if (currentCycle != null && (maxPressure == 0 || Arrays.equals(greenSet, currentGreenSet))) {
+            return countTrafficTime(maxPressure);
+        }
+
+        List<Route> greenRoutes = new ArrayList<>();
+        for (int i = 0; i < routePressures.length; i++) {
+            if ((greenSet[i >>> 6] & (1L << i)) != 0) {
+                greenRoutes.add(routes.get(i));
+            }
+        }
+        currentGreenSet = greenSet;
+        switchTo(new Cycle(id + "-D" + ++decisions, greenRoutes, MINIMUM_CYCLE_TIME, clock, environment.dispatcher()));
+        return countTrafficTime(maxPressure);
+    }
+
+    public int updateStateCyclesWithVariableTime() throws InterruptedException {
+        if (cycles.isEmpty()) {
             System.out.println("Intersection " + name + " has no more cycles");
             throw new IllegalStateException("Intersection " + name + " has no more cycles");
-        } else {
-            currentCycle.allowTraffic();
-            System.out.println("Intersection " + name + " started cycle " + currentCycle.getId());
-            return countTrafficTime(currentCycle.currentPressure());
         }
+        sensors.refresh();
+        updateCycleDemand();
+        int nextCycle = cycleScheduler.next(false);
+        if (nextCycle < 0) {
+            nextCycle = currentCycleIndex; //the only cycle stays green
+        }
+        switchTo(cycles.get(nextCycle));
+        currentCycleIndex = nextCycle;
+        return countTrafficTime(cycleDemand(nextCycle));
     }
 
     public int updateStateCyclesWithVariableTimeAvoidEmptyCycles() throws InterruptedException  {
-        int pressure;
-        Cycle nextCycle = cycleQueue.poll();
-        if (nextCycle != null) {
-            pressure = nextCycle.currentPressure();
-        } else {
+        if (cycles.isEmpty()) {
             System.out.println("Intersection " + name + " has no more cycles");
-            stopCurrentCycle();
             throw new IllegalStateException("Intersection " + name + " has no more cycles");
         }
-        while (pressure == 0 || nextCycle == currentCycle) {
-            cycleQueue.add(nextCycle);
-            nextCycle = cycleQueue.poll();
-            if (nextCycle != null) {
-                pressure = nextCycle.currentPressure();
-                if (nextCycle == currentCycle) {
-                    Thread.sleep(PAUSE_TIME_BETWEEN_TRAFFIC_CHECKS); //no need to check traffic every millisecond
+        int nextCycle;
+        while (true) {
+            long version = demandSignal.version();
+            CompletableFuture<Void> command = commands.arrival();
+            if (!commands.isEmpty()) {
+                applyCommands();
+                if (controlMode != ControlMode.AUTOMATIC) {
+                    return MANUAL_CONTROL_TIME;
                 }
-            } else {
-                System.out.println("Intersection " + name + " has no more cycles");
-                stopCurrentCycle();
-                throw new IllegalStateException("Intersection " + name + " has no more cycles");
             }
+            int priorityGreenTime = servePriority(false);
+            if (priorityGreenTime >= 0) {
+                return priorityGreenTime;
+            }
+            sensors.refresh();
+            updateCycleDemand();
+            nextCycle = cycleScheduler.next(true);
+            if (nextCycle >= 0) {
+                break;
+            }
+            //wakes up on detection, cameras which cannot report it are checked again after the timeout
+            awaitDemand(version, untilPriorityInReach(PAUSE_TIME_BETWEEN_TRAFFIC_CHECKS), command);
         }
+        metrics.skippedCycles(emptyCyclesWaiting());
 
-        stopCurrentCycle();
+        switchTo(cycles.get(nextCycle));
+        currentCycleIndex = nextCycle;
+        return countTrafficTime(cycleDemand(nextCycle));
+    }
 
-        currentCycle = nextCycle;
-        currentCycle.allowTraffic();
+    private void updateCycleDemand() {
+        for (int cycle = 0; cycle < cycleRoutes.length; cycle++) {
+            cycleScheduler.update(cycle, cyclePressure(cycle));
+        }
+    }
+
+    private int emptyCyclesWaiting() {
+        int empty = 0;
+        for (int cycle = 0; cycle < cycleRoutes.length; cycle++) {
+            if (cycle != currentCycleIndex && cycle != cycleScheduler.getCurrent() && cyclePressure(cycle) == 0) {
+                empty++;
+            }
+        }
+        return empty;
+    }
 
-        System.out.println("Intersection " + name + " started cycle " + currentCycle.getId());
-        return countTrafficTime(currentCycle.currentPressure());
+    private int cyclePressure(int cycle) {
+        int pressure = 0;
+        int[] indexes = cycleRoutes[cycle];
+        for (int i = 0; i < indexes.length; i++) {
+            pressure = Math.max(pressure, sensors.routePressure(indexes[i]));
+        }
+        return pressure;
+    }
+
+    private int cycleDemand(int cycle) {
+        int demand = 0;
+        int[] indexes = cycleRoutes[cycle];
+        for (int i = 0; i < indexes.length; i++) {
+            demand = Math.max(demand, routeDemand(indexes[i]));
+        }
+        return demand;
+    }
+
+    // Smoothed number of waiting cars and cars expected to arrive during the minimum green
+    private int routeDemand(int route) {
+        DemandEstimator estimator = sensors.routeEstimator(route);
+        return (int) Math.round(estimator.getSmoothed() + estimator.getArrivalsPerSecond() * MINIMUM_CYCLE_TIME);
     }
 
     private int countTrafficTime(int pressure) {
@@ -147,29 +452,253 @@ public class Intersection {
     }
 
     private int updateStateCycles() throws InterruptedException {
-        stopCurrentCycle();
-
-        currentCycle = cycleQueue.poll();
-        if (currentCycle == null) {
+        Cycle nextCycle = nextQueuedCycle();
+        if (nextCycle == null) {
             System.out.println("Intersection " + name + " has no more cycles");
             throw new IllegalStateException("Intersection " + name + " has no more cycles");
         } else {
-            currentCycle.allowTraffic();
-            System.out.println("Intersection " + name + " started cycle " + currentCycle.getId());
+            switchTo(nextCycle);
             return currentCycle.getGreenTime();
         }
     }
 
-    private void stopCurrentCycle() throws InterruptedException {
-        if (currentCycle != null) {
-            currentCycle.stopTraffic();
-            System.out.println("Intersection " + name + " ended cycle " + currentCycle.getId());
+    private Cycle nextQueuedCycle() {
+        if (currentCycleIndex >= 0) {
+            cycleQueue.add(currentCycle);
+        }
+        return cycleQueue.poll();
+    }
+
+    // Stops routes leaving with the current cycle and allows routes joining with the next one, routes in both stay green
+    private void switchTo(Cycle nextCycle) {
+        switchTo(nextCycle, transition.plan(currentCycle, nextCycle));
+    }
+
+    private void switchTo(Cycle nextCycle, TransitionPlan plan) {
+        long start = System.nanoTime();
+        Cycle previousCycle = currentCycle;
+        CycleTransition.Times times = transition.run(plan);
+        if (!plan.changesNothing()) {
+            if (previousCycle != null) {
+                metrics.stopped(plan.getStopping(), times.stopStart(), times.stopEnd());
+            }
+            metrics.allowed(plan.getStarting(), times.allowStart(), times.end());
+        }
+        if (previousCycle != null) {
+            SignalEventLog.getDefault().cycleEnded(clock.millis(), id, previousCycle.getId());
+        }
+        if (nextCycle != previousCycle) {
+            greenStart = clock.millis();
+        }
+        currentCycle = nextCycle;
+        currentCycleIndex = cycleIndexOf(nextCycle);
+        SignalEventLog.getDefault().cycleStarted(clock.millis(), id, currentCycle.getId());
+        waitNanos += System.nanoTime() - start;
+    }
+
+    private void awaitDemand(long version, long timeoutMillis, CompletableFuture<Void> command) throws InterruptedException {
+        long start = System.nanoTime();
+        demandSignal.await(version, timeoutMillis, command);
+        waitNanos += System.nanoTime() - start;
+    }
+
+    private int cycleIndexOf(Cycle cycle) {
+        for (int i = 0; i < cycles.size(); i++) {
+            if (cycles.get(i) == cycle) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Submits a manual override. Commands are applied by the thread updating the intersection at the start of the
+     * next update, the returned future completes once the command is taken and exceptionally when it is rejected.
+     */
+    public CompletableFuture<Void> submit(IntersectionCommand command) {
+        return commands.submit(command);
+    }
+
+    /**
+     * Gives green to the route as fast as possible and holds it until {@link #endPreemption()}.
+     */
+    public CompletableFuture<Void> preempt(Route route) {
+        return commands.submit(new IntersectionCommand.Preempt(route));
+    }
+
+    public CompletableFuture<Void> endPreemption() {
+        return commands.submit(new IntersectionCommand.Resume());
+    }
+
+    // Returns true when any command was taken
+    private boolean applyCommands() {
+        boolean applied = false;
+        CommandQueue.Pending pending;
+        while ((pending = commands.poll()) != null) {
+            try {
+                apply(pending);
+                applied = true;
+                if (!(pending.command() instanceof IntersectionCommand.RequestPriority)) {
+                    decisionRequested = true;
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Intersection " + name + " rejected command " + pending.command() + ": " + e.getMessage());
+                pending.acknowledged().completeExceptionally(e);
+            }
+        }
+        return applied;
+    }
+
+    // Commands are acknowledged once validated, before lights start changing
+    private void apply(CommandQueue.Pending pending) {
+        switch (pending.command()) {
+            case IntersectionCommand.ForceCycle force -> {
+                int cycle = cycleIndexOf(force.cycleId());
+                if (cycle < 0) {
+                    throw new IllegalArgumentException("Intersection " + name + " has no cycle " + force.cycleId());
+                }
+                acknowledge(pending);
+                leaveFlash();
+                jumpTo(cycle);
+                controlMode = ControlMode.HOLD;
+            }
+            case IntersectionCommand.Hold hold -> {
+                if (currentCycle == null) {
+                    throw new IllegalStateException("Intersection " + name + " has no green cycle to hold");
+                }
+                acknowledge(pending);
+                controlMode = ControlMode.HOLD;
+            }
+            case IntersectionCommand.Preempt preempt -> {
+                if (!collisionMatrix.contains(preempt.route())) {
+                    throw new IllegalArgumentException("Route " + preempt.route().getId() + " is not part of intersection " + name);
+                }
+                if (preempt.route().getType() == RouteType.CONDITIONAL) {
+                    throw new IllegalArgumentException("Conditional route " + preempt.route().getId() + " cannot be preempted");
+                }
+                acknowledge(pending);
+                leaveFlash();
+                preempt(collisionMatrix.indexOf(preempt.route()), pending.submittedMillis());
+            }
+            case IntersectionCommand.RequestPriority priority -> {
+                Route route = priority.request().route();
+                if (!collisionMatrix.contains(route) || route.getType() == RouteType.CONDITIONAL) {
+                    throw new IllegalArgumentException("Route " + route.getId() + " cannot get priority at intersection " + name);
+                }
+                acknowledge(pending);
+                priorityRequests.add(priority.request());
+            }
+            case IntersectionCommand.Flash flash -> {
+                acknowledge(pending);
+                flash();
+            }
+            case IntersectionCommand.Resume resume -> {
+                acknowledge(pending);
+                leaveFlash();
+                compensatePreemption();
+                controlMode = ControlMode.AUTOMATIC;
+            }
+            case IntersectionCommand.ReloadPlan reload -> {
+                if (reload.cycles().isEmpty()) {
+                    throw new IllegalArgumentException("Intersection " + name + " cannot run an empty plan");
+                }
+                validateCycles(reload.cycles());
+                cycles = List.copyOf(reload.cycles());
+                initializeCycles();
+                acknowledge(pending);
+            }
+        }
+    }
+
+    private int cycleIndexOf(String cycleId) {
+        for (int i = 0; i < cycles.size(); i++) {
+            if (cycles.get(i).getId().equals(cycleId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Switches to a planned cycle out of order, the cycle left is queued again
+    private void jumpTo(int index) {
+        Cycle cycle = cycles.get(index);
+        if (cycle == currentCycle) {
+            return;
+        }
+        if (currentCycleIndex >= 0) {
             cycleQueue.add(currentCycle);
-            Thread.sleep(PAUSE_TIME);
         }
+        cycleQueue.remove(cycle);
+        currentGreenSet = null;
+        switchTo(cycle);
+        cycleScheduler.select(currentCycleIndex);
+    }
+
+    private void acknowledge(CommandQueue.Pending pending) {
+        metrics.commandApplied(clock.millis() - pending.submittedMillis());
+        pending.acknowledged().complete(null);
+    }
+
+    // Compiled plan of the green cycle is used, the time to green counts from the submit of the command
+    private void preempt(int route, long submittedMillis) {
+        PreemptionPlans.Preemption preemption = preemptionPlans.plan(currentCycle, currentCycleIndex, route);
+        if (currentCycleIndex >= 0) {
+            cycleQueue.add(currentCycle);
+        }
+        cycleScheduler.release();
+        currentGreenSet = null;
+        if (preemptionStart < 0) {
+            preemptionStart = clock.millis();
+        }
+        switchTo(preemption.target(), preemption.plan());
+        metrics.preempted(clock.millis() - submittedMillis);
+        controlMode = ControlMode.PREEMPTION;
+    }
+
+    // Every minimum green of preemption counts as a decision, so cycles with traffic that waited through it reach
+    // the maximum age and are served before others
+    private void compensatePreemption() {
+        if (preemptionStart < 0) {
+            return;
+        }
+        long preempted = clock.millis() - preemptionStart;
+        cycleScheduler.skip((int) (preempted / (MINIMUM_CYCLE_TIME * 1000L)));
+        preemptionStart = -1;
+    }
+
+    private void flash() {
+        if (controlMode == ControlMode.FLASH) {
+            return;
+        }
+        defaultSignal();
+        if (currentCycle != null) {
+            if (currentCycleIndex >= 0) {
+                cycleQueue.add(currentCycle);
+            }
+            SignalEventLog.getDefault().cycleEnded(clock.millis(), id, currentCycle.getId());
+        }
+        currentCycle = null;
+        currentCycleIndex = -1;
+        currentGreenSet = null;
+        cycleScheduler.release();
+        controlMode = ControlMode.FLASH;
+    }
+
+    // All routes are stopped before any cycle starts again
+    private void leaveFlash() {
+        if (controlMode != ControlMode.FLASH) {
+            return;
+        }
+        long start = System.nanoTime();
+        long stopStart = clock.millis();
+        clock.await(CompletableFuture.allOf(routes.stream().map(route -> route.stopTrafficAsync(environment.dispatcher())).toArray(CompletableFuture<?>[]::new)));
+        metrics.stopped(routes, stopStart, clock.millis());
+        waitNanos += System.nanoTime() - start;
+        controlMode = ControlMode.AUTOMATIC;
     }
 
+    // Covers routes of all cycles, also of a cycle dropped by a reloaded plan that is still green
     public void defaultSignal() {
-        cycles.forEach(Cycle::defaultSignal);
+        routes.forEach(Route::defaultSignal);
     }
 }
@@ -0,0 +1,28 @@
+package org.coffee.component.intersection;
+
+import org.coffee.component.clock.Clock;
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.clock.SystemClock;
+import org.coffee.component.light.LightCommandDispatcher;
+import org.coffee.component.sensor.SensorSampler;
+
+/**
+ * Time and executors an intersection runs on. Each intersection gets its own, so a simulated intersection never
+ * changes how other intersections in the same process run.
+ */
+public record IntersectionEnvironment(Clock clock, LightCommandDispatcher dispatcher, SensorSampler sampler) {
+
+    /**
+     * Wall-clock time with the shared light dispatcher pool and sensor sampler.
+     */
+    public static IntersectionEnvironment realTime() {
+        return new IntersectionEnvironment(SystemClock.INSTANCE, LightCommandDispatcher.getDefault(), SensorSampler.getDefault());
+    }
+
+    /**
+     * Simulated time with light commands and sensor reads run on the calling thread, as the clock is single-threaded.
+     */
+    public static IntersectionEnvironment simulated(SimulationClock clock) {
+        return new IntersectionEnvironment(clock, new LightCommandDispatcher(Runnable::run), new SensorSampler(Runnable::run));
+    }
+}
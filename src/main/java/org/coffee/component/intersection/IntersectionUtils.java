@@ -7,7 +7,6 @@ import org.coffee.component.lane.PedestrianLane;
 import org.coffee.component.route.Route;
 
 import java.util.List;
-import java.util.Set;
 
 import static org.coffee.component.attribute.Location.EAST;
 import static org.coffee.component.attribute.Location.NORTH;
@@ -56,185 +55,74 @@ public class IntersectionUtils {
                 directionsNotCrossing(route1, route2);
     }
 
-    private static boolean isNotCrossingDirection(Location from1, Location to1, Location from2, Location to2) {
-        if (from1 == SOUTH) {
-            if (to1 == NORTH) {
-                if (from2 == SOUTH) {
-                    return Set.of(NORTH, WEST, EAST, SOUTH).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(SOUTH, WEST).contains(to2);
-                } else if (from2 == EAST) {
-                    return to2 == EAST;
-                } else if (from2 == WEST) {
-                    return Set.of(SOUTH, WEST).contains(to2);
-                }
-            } else if (to1 == SOUTH) {
-                if (from2 == SOUTH) {
-                    return Set.of(NORTH, WEST, EAST, SOUTH).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(EAST, WEST, NORTH).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(EAST, WEST, NORTH).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(EAST, WEST, NORTH).contains(to2);
-                }
-            } else if (to1 == EAST) {
-                if (from2 == SOUTH) {
-                    return Set.of(NORTH, WEST, EAST, SOUTH).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(SOUTH, WEST, NORTH).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(NORTH, SOUTH, WEST).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(SOUTH, NORTH, WEST).contains(to2);
-                }
-            } else if (to1 == WEST) {
-                if (from2 == SOUTH) {
-                    return Set.of(NORTH, EAST, WEST, SOUTH).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(NORTH, EAST).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(NORTH, EAST).contains(to2);
-                } else if (from2 == WEST) {
-                    return to2 == SOUTH;
-                }
-            }
-        } else if (from1 == NORTH) {
-            if (to1 == SOUTH) {
-                if (from2 == SOUTH) {
-                    return Set.of(NORTH, EAST).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(SOUTH, WEST, EAST, NORTH).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(NORTH, EAST).contains(to2);
-                } else if (from2 == WEST) {
-                    return to2 == WEST;
-                }
-            } else if (to1 == NORTH) {
-                if (from2 == SOUTH) {
-                    return Set.of(EAST, WEST, SOUTH).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(SOUTH, WEST, EAST, NORTH).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(EAST, WEST, SOUTH).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(EAST, WEST, SOUTH).contains(to2);
-                }
-            } else if (to1 == EAST) {
-                if (from2 == SOUTH) {
-                    return Set.of(SOUTH, WEST).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(SOUTH, WEST, EAST, NORTH).contains(to2);
-                } else if (from2 == EAST) {
-                    return to2 == NORTH;
-                } else if (from2 == WEST) {
-                    return Set.of(SOUTH, WEST).contains(to2);
-                }
-            } else if (to1 == WEST) {
-                if (from2 == SOUTH) {
-                    return Set.of(NORTH, EAST, SOUTH).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(NORTH, EAST, WEST, SOUTH).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(NORTH, SOUTH, EAST).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(EAST, NORTH, SOUTH).contains(to2);
-                }
-            }
-        } else if (from1 == EAST) {
-            if (to1 == SOUTH) {
-                if (from2 == SOUTH) {
-                    return to2 == EAST;
-                } else if (from2 == NORTH) {
-                    return Set.of(NORTH, WEST).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(NORTH, SOUTH, WEST, EAST).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(NORTH, WEST).contains(to2);
-                }
-            } else if (to1 == NORTH) {
-                if (from2 == SOUTH) {
-                    return Set.of(EAST, WEST, SOUTH).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(SOUTH, WEST, EAST).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(NORTH, SOUTH, WEST, EAST).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(SOUTH, EAST, WEST).contains(to2);
-                }
-            } else if (to1 == EAST) {
-                if (from2 == SOUTH) {
-                    return Set.of(NORTH, WEST, SOUTH).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(NORTH, WEST, SOUTH).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(NORTH, SOUTH, WEST, EAST).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(NORTH, WEST, SOUTH).contains(to2);
-                }
-            } else if (to1 == WEST) {
-                if (from2 == SOUTH) {
-                    return Set.of(SOUTH, EAST).contains(to2);
-                } else if (from2 == NORTH) {
-                    return to2 == NORTH;
-                } else if (from2 == EAST) {
-                    return Set.of(NORTH, SOUTH, WEST, EAST).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(EAST, SOUTH).contains(to2);
-                }
-            }
-        } else if (from1 == WEST) {
-            if (to1 == SOUTH) {
-                if (from2 == SOUTH) {
-                    return Set.of(WEST, NORTH, EAST).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(WEST, NORTH, EAST).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(WEST, NORTH, EAST).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(NORTH, SOUTH, EAST, WEST).contains(to2);
-                }
-            } else if (to1 == NORTH) {
-                if (from2 == SOUTH) {
-                    return Set.of(EAST, WEST).contains(to2);
-                } else if (from2 == NORTH) {
-                    return to2 == WEST;
-                } else if (from2 == EAST) {
-                    return Set.of(SOUTH, WEST).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(NORTH, SOUTH, EAST, WEST).contains(to2);
-                }
-            } else if (to1 == EAST) {
-                if (from2 == SOUTH) {
-                    return to2 == SOUTH;
-                } else if (from2 == NORTH) {
-                    return Set.of(NORTH, WEST).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(NORTH, WEST).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(SOUTH, NORTH, EAST, WEST).contains(to2);
-                }
-            } else if (to1 == WEST) {
-                if (from2 == SOUTH) {
-                    return Set.of(NORTH, SOUTH, EAST).contains(to2);
-                } else if (from2 == NORTH) {
-                    return Set.of(NORTH, SOUTH, WEST).contains(to2);
-                } else if (from2 == EAST) {
-                    return Set.of(NORTH, SOUTH, WEST).contains(to2);
-                } else if (from2 == WEST) {
-                    return Set.of(NORTH, SOUTH, WEST, EAST).contains(to2);
+    // Movement compatibility rules. Each row describes movement from1->to1 and, for every entry location from2,
+    // lists destinations to2 whose movement does not cross it. Locations are abbreviated as N, S, E, W.
+    private static final String[] NOT_CROSSING_RULES = {
+            "N->N | N:NSEW S:SEW  E:SEW  W:SEW",
+            "N->S | N:NSEW S:NE   E:NE   W:W",
+            "N->E | N:NSEW S:SW   E:N    W:SW",
+            "N->W | N:NSEW S:NSE  E:NSE  W:NSE",
+            "S->N | N:SW   S:NSEW E:E    W:SW",
+            "S->S | N:NEW  S:NSEW E:NEW  W:NEW",
+            "S->E | N:NSW  S:NSEW E:NSW  W:NSW",
+            "S->W | N:NE   S:NSEW E:NE   W:S",
+            "E->N | N:SEW  S:SEW  E:NSEW W:SEW",
+            "E->S | N:NW   S:E    E:NSEW W:NW",
+            "E->E | N:NSW  S:NSW  E:NSEW W:NSW",
+            "E->W | N:N    S:SE   E:NSEW W:SE",
+            "W->N | N:W    S:EW   E:SW   W:NSEW",
+            "W->S | N:NEW  S:NEW  E:NEW  W:NSEW",
+            "W->E | N:NW   S:S    E:NW   W:NSEW",
+            "W->W | N:NSW  S:NSE  E:NSW  W:NSEW",
+    };
+
+    private static final int LOCATIONS = Location.values().length;
+
+    // One bit per (from1, to1, from2, to2) combination, 4 * 4 * 4 * 4 = 256 bits
+    private static final long[] NOT_CROSSING_TABLE = buildNotCrossingTable();
+
+    private static long[] buildNotCrossingTable() {
+        long[] table = new long[LOCATIONS * LOCATIONS * LOCATIONS * LOCATIONS / Long.SIZE];
+        for (String rule : NOT_CROSSING_RULES) {
+            String[] parts = rule.split("\\|");
+            Location from1 = parseLocation(parts[0].charAt(0));
+            Location to1 = parseLocation(parts[0].charAt(3));
+            for (String entry : parts[1].trim().split("\\s+")) {
+                Location from2 = parseLocation(entry.charAt(0));
+                for (char destination : entry.substring(2).toCharArray()) {
+                    int index = tableIndex(from1, to1, from2, parseLocation(destination));
+                    table[index >>> 6] |= 1L << index;
                 }
             }
         }
-        return false;
+        return table;
+    }
+
+    private static Location parseLocation(char abbreviation) {
+        return switch (abbreviation) {
+            case 'N' -> NORTH;
+            case 'S' -> SOUTH;
+            case 'E' -> EAST;
+            case 'W' -> WEST;
+            default -> throw new IllegalStateException("Unknown location abbreviation " + abbreviation);
+        };
+    }
+
+    private static int tableIndex(Location from1, Location to1, Location from2, Location to2) {
+        return ((from1.ordinal() * LOCATIONS + to1.ordinal()) * LOCATIONS + from2.ordinal()) * LOCATIONS + to2.ordinal();
+    }
+
+    public static boolean isNotCrossingDirection(Location from1, Location to1, Location from2, Location to2) {
+        int index = tableIndex(from1, to1, from2, to2);
+        return (NOT_CROSSING_TABLE[index >>> 6] & (1L << index)) != 0;
     }
 
     private static boolean isTheSameDirection(LaneInbound lane1, LaneInbound lane2) {
-        var horizontal = Set.of(EAST, WEST);
-        var vertical = Set.of(Location.NORTH, SOUTH);
+        return isHorizontal(lane1.getLocation()) == isHorizontal(lane2.getLocation());
+    }
 
-        return (horizontal.contains(lane1.getLocation()) && horizontal.contains(lane2.getLocation())) ||
-                (vertical.contains(lane1.getLocation()) && vertical.contains(lane2.getLocation()));
+    private static boolean isHorizontal(Location location) {
+        return location == EAST || location == WEST;
     }
 
     private static boolean lanesNotCrossing(Route route1, Route route2) {
@@ -263,11 +151,16 @@ public class IntersectionUtils {
     }
 
     private static boolean directionsNotCrossing(Route route1, Route route2) {
-        return route1.getOutboundLanes().stream()
-                .map(Lane::getLocation)
-                .allMatch(direction1 -> route2.getOutboundLanes().stream()
-                        .map(Lane::getLocation)
-                        .allMatch(direction2 -> isNotCrossingDirection(route1.getInboundLane().getLocation(), direction1, route2.getInboundLane().getLocation(), direction2)));
+        Location from1 = route1.getInboundLane().getLocation();
+        Location from2 = route2.getInboundLane().getLocation();
+        for (Lane lane1 : route1.getOutboundLanes()) {
+            for (Lane lane2 : route2.getOutboundLanes()) {
+                if (!isNotCrossingDirection(from1, lane1.getLocation(), from2, lane2.getLocation())) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     private static boolean conditionalInTheSameDirectionAsNormal(Route route1, Route route2) {
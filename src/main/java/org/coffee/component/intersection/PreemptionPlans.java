@@ -0,0 +1,74 @@
+package org.coffee.component.intersection;
+
+import org.coffee.component.clock.Clock;
+import org.coffee.component.cycle.Cycle;
+import org.coffee.component.light.LightCommandDispatcher;
+import org.coffee.component.route.Route;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plans for giving green to a single route at once, e.g. for an emergency vehicle, compiled for every route and every
+ * planned cycle that may be green at that moment. The target cycle keeps the routes of the green cycle compatible
+ * with the preempting route, so only conflicting routes are stopped, all at the same time, and the preempting route
+ * starts as soon as they are red and their longest clearance from the {@link IntergreenMatrix} has passed.
+ * With a planned cycle or no cycle green activation is a table lookup, other green cycles get a plan on activation.
+ */
+public class PreemptionPlans {
+    private final CollisionMatrix collisionMatrix;
+    private final IntergreenMatrix intergreenMatrix;
+    private final int greenTime;
+    private final Clock clock;
+    private final LightCommandDispatcher dispatcher;
+    // row 0 is used when no cycle is green, row c + 1 when planned cycle c is green
+    private final Preemption[][] preemptions;
+
+    public PreemptionPlans(CollisionMatrix collisionMatrix, IntergreenMatrix intergreenMatrix, List<Cycle> cycles, int greenTime,
+                           Clock clock, LightCommandDispatcher dispatcher) {
+        this.collisionMatrix = collisionMatrix;
+        this.intergreenMatrix = intergreenMatrix;
+        this.greenTime = greenTime;
+        this.clock = clock;
+        this.dispatcher = dispatcher;
+        this.preemptions = new Preemption[cycles.size() + 1][collisionMatrix.size()];
+        for (int route = 0; route < collisionMatrix.size(); route++) {
+            preemptions[0][route] = compile(null, route);
+            for (int cycle = 0; cycle < cycles.size(); cycle++) {
+                preemptions[cycle + 1][route] = compile(cycles.get(cycle), route);
+            }
+        }
+    }
+
+    /**
+     * Preemption for the route while the given cycle is green, {@code cycleIndex} being its position in the plan
+     * or -1 when it is not a planned cycle.
+     */
+    public Preemption plan(Cycle current, int cycleIndex, int route) {
+        if (current == null) {
+            return preemptions[0][route];
+        }
+        if (cycleIndex >= 0) {
+            return preemptions[cycleIndex + 1][route];
+        }
+        return compile(current, route);
+    }
+
+    private Preemption compile(Cycle current, int route) {
+        Route preempting = collisionMatrix.route(route);
+        List<Route> routes = new ArrayList<>();
+        routes.add(preempting);
+        if (current != null) {
+            for (Route other : current.getRoutes()) {
+                if (other != preempting && collisionMatrix.isCompatible(other, preempting)) {
+                    routes.add(other);
+                }
+            }
+        }
+        Cycle target = new Cycle("E-" + preempting.getId(), List.copyOf(routes), greenTime, clock, dispatcher);
+        return new Preemption(target, new TransitionPlan(collisionMatrix, intergreenMatrix, current, target));
+    }
+
+    public record Preemption(Cycle target, TransitionPlan plan) {
+    }
+}
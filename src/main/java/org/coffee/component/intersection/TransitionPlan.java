@@ -0,0 +1,94 @@
+package org.coffee.component.intersection;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.coffee.component.cycle.Cycle;
+import org.coffee.component.route.Route;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.coffee.component.attribute.RouteType.CONDITIONAL;
+
+/**
+ * Compiled change from one cycle to another. Routes green in both cycles stay green, only routes leaving are stopped
+ * and only routes joining are started. Every starting route knows the positions of the stopping routes it conflicts
+ * with and the clearance it needs after them. Conditional routes are never kept: they are stopped with the previous
+ * cycle, and those of the next cycle are stopped if they happen to be on, as in {@link Cycle#allowTraffic()}.
+ */
+@Getter
+public class TransitionPlan {
+    private final List<Route> stopping;
+    private final List<Route> starting;
+    private final List<Route> staying;
+    private final List<Route> conditionalToStop;
+    @Getter(AccessLevel.NONE)
+    private final int[][] waitsFor;
+    @Getter(AccessLevel.NONE)
+    private final int[] clearance;
+
+    public TransitionPlan(CollisionMatrix collisionMatrix, IntergreenMatrix intergreenMatrix, Cycle previous, Cycle next) {
+        List<Route> previousRoutes = previous == null ? List.of() : previous.getRoutes();
+        Set<Route> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Route route : next.getRoutes()) {
+            if (route.getType() != CONDITIONAL && previousRoutes.contains(route)) {
+                kept.add(route);
+            }
+        }
+        List<Route> stopping = new ArrayList<>();
+        List<Route> staying = new ArrayList<>();
+        for (Route route : previousRoutes) {
+            (kept.contains(route) ? staying : stopping).add(route);
+        }
+        List<Route> starting = new ArrayList<>();
+        List<Route> conditionalToStop = new ArrayList<>();
+        for (Route route : next.getRoutes()) {
+            if (route.getType() == CONDITIONAL) {
+                if (!previousRoutes.contains(route)) {
+                    conditionalToStop.add(route);
+                }
+            } else if (!kept.contains(route)) {
+                starting.add(route);
+            }
+        }
+
+        this.stopping = List.copyOf(stopping);
+        this.starting = List.copyOf(starting);
+        this.staying = List.copyOf(staying);
+        this.conditionalToStop = List.copyOf(conditionalToStop);
+        this.waitsFor = new int[starting.size()][];
+        this.clearance = new int[starting.size()];
+        for (int i = 0; i < starting.size(); i++) {
+            int incoming = collisionMatrix.indexOf(starting.get(i));
+            int[] conflicts = new int[stopping.size()];
+            int count = 0;
+            for (int j = 0; j < stopping.size(); j++) {
+                int outgoing = collisionMatrix.indexOf(stopping.get(j));
+                if (!collisionMatrix.isCompatible(outgoing, incoming)) {
+                    conflicts[count++] = j;
+                    clearance[i] = Math.max(clearance[i], intergreenMatrix.millis(outgoing, incoming));
+                }
+            }
+            waitsFor[i] = Arrays.copyOf(conflicts, count);
+        }
+    }
+
+    /**
+     * Positions in {@link #getStopping()} of the routes the starting route at given position has to wait for.
+     */
+    public int[] waitsFor(int starting) {
+        return waitsFor[starting];
+    }
+
+    public int clearance(int starting) {
+        return clearance[starting];
+    }
+
+    public boolean changesNothing() {
+        return stopping.isEmpty() && starting.isEmpty();
+    }
+}
@@ -0,0 +1,12 @@
+package org.coffee.component.journal;
+
+import org.coffee.component.attribute.Color;
+
+import java.util.Map;
+
+/**
+ * State of an intersection reconstructed from the journal: the cycle that was green, or null between cycles,
+ * and the color of every light that changed at least once.
+ */
+public record IntersectionState(String intersection, String cycle, Map<String, Color> lights) {
+}
@@ -0,0 +1,7 @@
+package org.coffee.component.journal;
+
+import org.coffee.component.attribute.Color;
+import org.coffee.component.event.SignalEventType;
+
+public record JournalRecord(long timestamp, SignalEventType type, String intersection, String source, Color oldColor, Color newColor) {
+}
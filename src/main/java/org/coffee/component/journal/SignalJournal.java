@@ -0,0 +1,177 @@
+package org.coffee.component.journal;
+
+import org.coffee.component.attribute.Color;
+import org.coffee.component.event.SignalEventSink;
+import org.coffee.component.event.SignalEventType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only journal of signal events in memory-mapped segment files. A record is its payload length, CRC32C of
+ * the payload and the payload itself: timestamp, event type, old and new color, intersection and source id.
+ * The length is written last, so a record cut by a crash is either invisible or fails its CRC. A full segment
+ * is closed and a new one is started. Records are not forced to disk one by one, the current segment is forced
+ * every flush interval and when the journal is closed. A record that cannot be written, e.g. when the next segment
+ * cannot be created or an id is too long, is skipped and counted as a failure instead of failing the caller.
+ */
+public final class SignalJournal implements SignalEventSink, AutoCloseable {
+    static final int MAGIC = 0x53474E4A;
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 8;
+    static final int MAX_ID_LENGTH = 1024;
+    static final String SEGMENT_PREFIX = "signals-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    private static final int MAX_PAYLOAD_SIZE = Long.BYTES + 3 + 2 * (Short.BYTES + MAX_ID_LENGTH * Character.BYTES);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ByteBuffer payload = ByteBuffer.allocate(MAX_PAYLOAD_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private final ScheduledExecutorService flusher;
+    private FileChannel channel;
+    private volatile MappedByteBuffer segment;
+    private int segmentIndex;
+    private long records;
+    private long failures;
+
+    public SignalJournal(Path directory, int segmentSize, Duration flushInterval) throws IOException {
+        if (segmentSize < SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE + MAX_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("Segment size " + segmentSize + " is too small for a record");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.segmentIndex = lastSegmentIndex(directory);
+        openNextSegment();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "signal-journal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleAtFixedRate(this::flush, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void accept(long timestamp, SignalEventType type, String intersection, String source, Color oldColor, Color newColor) {
+        try {
+            write(timestamp, type, intersection, source, oldColor, newColor);
+            records++;
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            failures++;
+        }
+    }
+
+    private void write(long timestamp, SignalEventType type, String intersection, String source, Color oldColor, Color newColor) {
+        payload.clear();
+        payload.putLong(timestamp)
+                .put((byte) type.ordinal())
+                .put(encode(oldColor))
+                .put(encode(newColor));
+        putId(intersection);
+        putId(source);
+        int length = payload.position();
+        crc.reset();
+        crc.update(payload.array(), 0, length);
+
+        if (segment.remaining() < RECORD_HEADER_SIZE + length) {
+            rotate();
+        }
+        int position = segment.position();
+        segment.putInt(position + Integer.BYTES, (int) crc.getValue());
+        segment.put(position + RECORD_HEADER_SIZE, payload.array(), 0, length);
+        segment.putInt(position, length);
+        segment.position(position + RECORD_HEADER_SIZE + length);
+    }
+
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    public synchronized void flush() {
+        segment.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flusher.shutdownNow();
+        segment.force();
+        channel.close();
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static int lastSegmentIndex(Path directory) throws IOException {
+        List<Path> segments = segments(directory);
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        String name = segments.getLast().getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void rotate() {
+        try {
+            segment.force();
+            channel.close();
+            openNextSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rotate signal journal in " + directory, e);
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        Path file = directory.resolve(SEGMENT_PREFIX + String.format("%010d", segmentIndex) + SEGMENT_SUFFIX);
+        channel = FileChannel.open(file, CREATE_NEW, READ, WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        segment = buffer;
+    }
+
+    private void putId(String id) {
+        if (id == null) {
+            payload.putShort((short) -1);
+            return;
+        }
+        if (id.length() > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Id " + id.substring(0, 16) + "... is longer than " + MAX_ID_LENGTH + " characters");
+        }
+        payload.putShort((short) id.length());
+        for (int i = 0; i < id.length(); i++) {
+            payload.putChar(id.charAt(i));
+        }
+    }
+
+    private static byte encode(Color color) {
+        return color == null ? -1 : (byte) color.ordinal();
+    }
+}
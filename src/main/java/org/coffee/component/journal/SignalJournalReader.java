@@ -0,0 +1,142 @@
+package org.coffee.component.journal;
+
+import org.coffee.component.attribute.Color;
+import org.coffee.component.event.SignalEventType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.coffee.component.journal.SignalJournal.MAGIC;
+import static org.coffee.component.journal.SignalJournal.RECORD_HEADER_SIZE;
+import static org.coffee.component.journal.SignalJournal.VERSION;
+
+/**
+ * Reads a signal journal and reconstructs state of intersections at a given time. Reading of a segment stops at
+ * its first damaged record, such records are counted in {@link #getCorruptedRecords()}.
+ * Usage: {@code SignalJournalReader <journal directory> <timestamp in millis>}.
+ */
+public class SignalJournalReader {
+    private static final Color[] COLORS = Color.values();
+    private static final SignalEventType[] TYPES = SignalEventType.values();
+
+    private final Path directory;
+    private int corruptedRecords;
+
+    public SignalJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: SignalJournalReader <journal directory> <timestamp in millis>");
+            return;
+        }
+        var reader = new SignalJournalReader(Path.of(args[0]));
+        Collection<IntersectionState> states = reader.stateAt(Long.parseLong(args[1])).values();
+        states.forEach(state -> System.out.println("Intersection " + state.intersection() + ", cycle " + state.cycle() + ", lights " + state.lights()));
+        if (reader.getCorruptedRecords() > 0) {
+            System.out.println("Corrupted records: " + reader.getCorruptedRecords());
+        }
+    }
+
+    public List<JournalRecord> read() throws IOException {
+        corruptedRecords = 0;
+        List<JournalRecord> records = new ArrayList<>();
+        for (Path segment : SignalJournal.segments(directory)) {
+            readSegment(segment, records);
+        }
+        return records;
+    }
+
+    /**
+     * State of every intersection after all records with timestamp not later than the given one.
+     */
+    public Map<String, IntersectionState> stateAt(long timestamp) throws IOException {
+        Map<String, String> cycles = new LinkedHashMap<>();
+        Map<String, Map<String, Color>> lights = new LinkedHashMap<>();
+        for (JournalRecord record : read()) {
+            if (record.timestamp() > timestamp || record.intersection() == null) {
+                continue;
+            }
+            String intersection = record.intersection();
+            lights.computeIfAbsent(intersection, key -> new LinkedHashMap<>());
+            switch (record.type()) {
+                case LIGHT_SWITCHED, LIGHT_BLINKING -> lights.get(intersection).put(record.source(), record.newColor());
+                case CYCLE_STARTED -> cycles.put(intersection, record.source());
+                case CYCLE_ENDED -> cycles.remove(intersection, record.source());
+            }
+        }
+        Map<String, IntersectionState> states = new LinkedHashMap<>();
+        lights.forEach((intersection, colors) -> states.put(intersection, new IntersectionState(intersection, cycles.get(intersection), colors)));
+        return states;
+    }
+
+    public int getCorruptedRecords() {
+        return corruptedRecords;
+    }
+
+    private void readSegment(Path file, List<JournalRecord> records) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (segment.remaining() < SignalJournal.SEGMENT_HEADER_SIZE || segment.getInt() != MAGIC || segment.getInt() != VERSION) {
+                corruptedRecords++;
+                return;
+            }
+            var crc = new CRC32C();
+            while (segment.remaining() >= RECORD_HEADER_SIZE) {
+                int length = segment.getInt();
+                int checksum = segment.getInt();
+                if (length == 0) {
+                    return;
+                }
+                if (length < 0 || length > segment.remaining()) {
+                    corruptedRecords++;
+                    return;
+                }
+                ByteBuffer payload = segment.slice(segment.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    corruptedRecords++;
+                    return;
+                }
+                records.add(decode(payload));
+                segment.position(segment.position() + length);
+            }
+        }
+    }
+
+    private static JournalRecord decode(ByteBuffer payload) {
+        long timestamp = payload.getLong();
+        SignalEventType type = TYPES[payload.get()];
+        Color oldColor = color(payload.get());
+        Color newColor = color(payload.get());
+        return new JournalRecord(timestamp, type, id(payload), id(payload), oldColor, newColor);
+    }
+
+    private static String id(ByteBuffer payload) {
+        short length = payload.getShort();
+        if (length < 0) {
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = payload.getChar();
+        }
+        return new String(chars);
+    }
+
+    private static Color color(byte color) {
+        return color < 0 ? null : COLORS[color];
+    }
+}
@@ -1,41 +1,89 @@
 package org.coffee.component.light;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.coffee.component.attribute.Color;
+import org.coffee.component.clock.Clock;
+import org.coffee.component.clock.SystemClock;
+import org.coffee.component.event.SignalEventLog;
 
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.coffee.component.attribute.Color.GREEN;
 
 @Getter
 public class ConditionalArrowTrafficLight implements TrafficLight {
     private final String id;
     private final String name;
-    private Color color;
+    private volatile Color color;
+    private String intersection;
+    @Getter(AccessLevel.NONE)
+    private volatile LightListener listener;
+    @Getter(AccessLevel.NONE)
+    private volatile LightStateBoard.Slot stateSlot;
+    @Getter(AccessLevel.NONE)
+    private final Clock clock;
 
     public ConditionalArrowTrafficLight(String id, String name) {
+        this(id, name, SystemClock.INSTANCE);
+    }
+
+    public ConditionalArrowTrafficLight(String id, String name, Clock clock) {
         this.id = id;
         this.name = name;
+        this.clock = clock;
     }
 
     @Override
-    public void allowTraffic() {
-        color = GREEN;
-        System.out.println("Conditional traffic light " + id + " switched to " + color);
+    public CompletableFuture<Void> allowTraffic() {
+        switchTo(GREEN);
+        return completedFuture(null);
     }
 
     @Override
-    public void stopTraffic() {
-        color = Color.BLACK;
-        System.out.println("Conditional traffic light " + id + " switched to " + color);
+    public CompletableFuture<Void> stopTraffic() {
+        switchTo(Color.BLACK);
+        return completedFuture(null);
     }
 
     @Override
     public void defaultSignal() {
-        color = Color.BLACK;
-        System.out.println("Conditional traffic light " + id + " switched to " + color);
+        switchTo(Color.BLACK);
+    }
+
+    @Override
+    public void assignTo(String intersection) {
+        this.intersection = intersection;
+    }
+
+    @Override
+    public void setListener(LightListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public synchronized void attachTo(LightStateBoard.Slot slot) {
+        this.stateSlot = slot;
+        slot.set(color);
     }
 
     @Override
     public boolean isAllowingTraffic() {
         return color == GREEN;
     }
+
+    private synchronized void switchTo(Color newColor) {
+        Color oldColor = color;
+        color = newColor;
+        LightStateBoard.Slot slot = stateSlot;
+        if (slot != null) {
+            slot.set(newColor);
+        }
+        SignalEventLog.getDefault().lightSwitched(clock.millis(), this, oldColor, newColor);
+        LightListener current = listener;
+        if (current != null) {
+            current.switched(this, oldColor, newColor);
+        }
+    }
 }
@@ -0,0 +1,13 @@
+package org.coffee.component.light;
+
+public record DispatcherMetrics(
+        long batches,
+        long commands,
+        long failedCommands,
+        long averageBatchLatencyMicros,
+        long maxBatchLatencyMicros,
+        int poolSize,
+        int activeThreads,
+        int queuedCommands
+) {
+}
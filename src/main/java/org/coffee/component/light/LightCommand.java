@@ -0,0 +1,17 @@
+package org.coffee.component.light;
+
+import java.util.concurrent.CompletableFuture;
+
+public record LightCommand(TrafficLight trafficLight, Action action) {
+
+    public enum Action {
+        ALLOW, STOP
+    }
+
+    CompletableFuture<Void> execute() {
+        return switch (action) {
+            case ALLOW -> trafficLight.allowTraffic();
+            case STOP -> trafficLight.stopTraffic();
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package org.coffee.component.light;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * Executes batches of light commands on a dedicated, bounded pool instead of the common pool.
+ * Commands for the same light are executed in the order they were dispatched, each one after the previous
+ * transition of that light has finished. When the queue is full the dispatching thread runs the command itself.
+ * Pool size and queue capacity are read from {@code traffic.dispatcher.threads} and
+ * {@code traffic.dispatcher.queueCapacity} system properties.
+ */
+public class LightCommandDispatcher {
+    private static final int DEFAULT_THREADS = Integer.getInteger("traffic.dispatcher.threads", Runtime.getRuntime().availableProcessors());
+    private static final int DEFAULT_QUEUE_CAPACITY = Integer.getInteger("traffic.dispatcher.queueCapacity", 1024);
+
+    private static volatile LightCommandDispatcher defaultDispatcher;
+
+    private final Executor executor;
+    private final Map<TrafficLight, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder failedCommands = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public LightCommandDispatcher(int threads, int queueCapacity) {
+        this(boundedPool(threads, queueCapacity));
+    }
+
+    /**
+     * Dispatcher running commands on given executor, e.g. {@code Runnable::run} for single-threaded simulation.
+     */
+    public LightCommandDispatcher(Executor executor) {
+        this.executor = executor;
+    }
+
+    private static ThreadPoolExecutor boundedPool(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "light-dispatcher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public static LightCommandDispatcher getDefault() {
+        if (defaultDispatcher == null) {
+            synchronized (LightCommandDispatcher.class) {
+                if (defaultDispatcher == null) {
+                    defaultDispatcher = new LightCommandDispatcher(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY);
+                }
+            }
+        }
+        return defaultDispatcher;
+    }
+
+    public CompletableFuture<Void> dispatch(List<LightCommand> batch) {
+        if (batch.isEmpty()) {
+            return completedFuture(null);
+        }
+        long start = System.nanoTime();
+        batches.increment();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[batch.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = dispatch(batch.get(i));
+        }
+        return CompletableFuture.allOf(futures)
+                .whenComplete((result, e) -> recordLatency(System.nanoTime() - start));
+    }
+
+    public DispatcherMetrics getMetrics() {
+        long count = batches.sum();
+        ThreadPoolExecutor pool = executor instanceof ThreadPoolExecutor threadPool ? threadPool : null;
+        return new DispatcherMetrics(
+                count,
+                commands.sum(),
+                failedCommands.sum(),
+                count == 0 ? 0 : totalLatencyNanos.sum() / count / 1_000,
+                maxLatencyNanos.get() / 1_000,
+                pool == null ? 0 : pool.getPoolSize(),
+                pool == null ? 0 : pool.getActiveCount(),
+                pool == null ? 0 : pool.getQueue().size()
+        );
+    }
+
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private CompletableFuture<Void> dispatch(LightCommand command) {
+        commands.increment();
+        TrafficLight trafficLight = command.trafficLight();
+        CompletableFuture<Void> result = pending.compute(trafficLight, (light, previous) -> (previous == null ? completedFuture((Void) null) : previous)
+                .thenComposeAsync(ignored -> command.execute(), executor)
+                .exceptionally(e -> {
+                    failedCommands.increment();
+                    System.out.println("Failed to " + command.action() + " on trafficLight:" + trafficLight.getId());
+                    return null;
+                }));
+        result.whenComplete((ignored, e) -> pending.remove(trafficLight, result));
+        return result;
+    }
+
+    private void recordLatency(long nanos) {
+        totalLatencyNanos.add(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
@@ -0,0 +1,12 @@
+package org.coffee.component.light;
+
+import org.coffee.component.attribute.Color;
+
+/**
+ * Called synchronously by a light on every color change, while the light is still locked. It must be fast and must
+ * not call back into other lights.
+ */
+@FunctionalInterface
+public interface LightListener {
+    void switched(TrafficLight light, Color oldColor, Color newColor);
+}
@@ -0,0 +1,144 @@
+package org.coffee.component.light;
+
+import org.coffee.component.attribute.Color;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.coffee.component.attribute.Color.BLACK;
+
+/**
+ * Colors of all lights of an intersection packed by 2 bits, 32 lights per word. Lights write their slot on every
+ * change. Writers are serialized and bump a sequence number before and after the write, so observers copy all words
+ * without locking and retry only if a change happened in the meantime (a seqlock). Reading a single light is one
+ * atomic read. A light without a color yet is stored as {@link Color#BLACK}.
+ */
+public class LightStateBoard {
+    private static final Color[] COLORS = Color.values();
+    private static final int BITS = 2;
+    private static final int PER_WORD = Long.SIZE / BITS;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final long LOW_BITS = 0x5555_5555_5555_5555L;
+
+    private final List<TrafficLight> lights;
+    private final Map<TrafficLight, Integer> slots = new IdentityHashMap<>();
+    private final AtomicLongArray words;
+    private volatile long sequence;
+
+    public LightStateBoard(List<TrafficLight> lights) {
+        List<TrafficLight> distinct = new ArrayList<>();
+        for (TrafficLight light : lights) {
+            if (slots.putIfAbsent(light, distinct.size()) == null) {
+                distinct.add(light);
+            }
+        }
+        this.lights = Collections.unmodifiableList(distinct);
+        this.words = new AtomicLongArray(words(distinct.size()));
+        for (int slot = 0; slot < distinct.size(); slot++) {
+            distinct.get(slot).attachTo(new Slot(this, slot));
+        }
+    }
+
+    public static int words(int lights) {
+        return (lights + PER_WORD - 1) / PER_WORD;
+    }
+
+    public int size() {
+        return lights.size();
+    }
+
+    public TrafficLight light(int slot) {
+        return lights.get(slot);
+    }
+
+    public int slotOf(TrafficLight light) {
+        Integer slot = slots.get(light);
+        return slot == null ? -1 : slot;
+    }
+
+    public Color color(int slot) {
+        return decode(words.getAcquire(slot / PER_WORD), slot);
+    }
+
+    /**
+     * Copies a consistent state of all lights into the given array of at least {@link #words(int)} words and
+     * returns it. Does not allocate or lock.
+     */
+    public long[] read(long[] into) {
+        while (true) {
+            long before = sequence;
+            if ((before & 1) == 0) {
+                for (int i = 0; i < words.length(); i++) {
+                    into[i] = words.getOpaque(i);
+                }
+                VarHandle.loadLoadFence();
+                if (sequence == before) {
+                    return into;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public long[] snapshot() {
+        return read(new long[words.length()]);
+    }
+
+    public static Color color(long[] snapshot, int slot) {
+        return decode(snapshot[slot / PER_WORD], slot);
+    }
+
+    /**
+     * Number of lights showing the color in a snapshot of {@code lights} lights.
+     */
+    public static int count(long[] snapshot, int lights, Color color) {
+        long pattern = LOW_BITS * color.ordinal();
+        int count = 0;
+        for (int i = 0; i < words(lights); i++) {
+            long difference = snapshot[i] ^ pattern;
+            long matching = ~(difference | difference >>> 1) & LOW_BITS;
+            int used = Math.min(PER_WORD, lights - i * PER_WORD);
+            if (used < PER_WORD) {
+                matching &= (1L << used * BITS) - 1;
+            }
+            count += Long.bitCount(matching);
+        }
+        return count;
+    }
+
+    private synchronized void write(int slot, Color color) {
+        int index = slot / PER_WORD;
+        int shift = slot % PER_WORD * BITS;
+        long value = (color == null ? BLACK : color).ordinal();
+        sequence++;
+        VarHandle.storeStoreFence();
+        words.setOpaque(index, words.getOpaque(index) & ~(MASK << shift) | value << shift);
+        sequence++;
+    }
+
+    private static Color decode(long word, int slot) {
+        return COLORS[(int) (word >>> slot % PER_WORD * BITS & MASK)];
+    }
+
+    /**
+     * Position of a light on a board, the light writes its color through it.
+     */
+    public static final class Slot {
+        private final LightStateBoard board;
+        private final int index;
+
+        Slot(LightStateBoard board, int index) {
+            this.board = board;
+            this.index = index;
+        }
+
+        public void set(Color color) {
+            board.write(index, color);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package org.coffee.component.light;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.coffee.component.attribute.Color;
+import org.coffee.component.clock.Clock;
+import org.coffee.component.clock.SystemClock;
+import org.coffee.component.event.SignalEventLog;
 
-import static java.lang.Thread.sleep;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.coffee.component.attribute.Color.BLACK;
 import static org.coffee.component.attribute.Color.GREEN;
 import static org.coffee.component.attribute.Color.RED;
@@ -13,42 +19,94 @@ public class PedestrianTrafficLight implements TrafficLight {
 
     private final String id;
     private final String name;
-    private Color color;
+    private volatile Color color;
+    private String intersection;
+    @Getter(AccessLevel.NONE)
+    private volatile LightListener listener;
+    @Getter(AccessLevel.NONE)
+    private volatile LightStateBoard.Slot stateSlot;
     private static final int BLINK_DURATION = 1000;
+    @Getter(AccessLevel.NONE)
+    private int transition;
+    @Getter(AccessLevel.NONE)
+    private final Clock clock;
 
     public PedestrianTrafficLight(String id, String name) {
+        this(id, name, SystemClock.INSTANCE);
+    }
+
+    public PedestrianTrafficLight(String id, String name, Clock clock) {
         this.id = id;
         this.name = name;
         this.color = RED;
+        this.clock = clock;
     }
 
     @Override
-    public void allowTraffic() throws InterruptedException {
-        color = GREEN;
-        System.out.println("Pedestrian traffic light " + id + " switched to " + color);
+    public synchronized CompletableFuture<Void> allowTraffic() {
+        transition++;
+        switchTo(GREEN);
+        return completedFuture(null);
     }
 
     @Override
-    public void stopTraffic() throws InterruptedException {
+    public synchronized CompletableFuture<Void> stopTraffic() {
         if (color == RED) {
-            return;
+            return completedFuture(null);
         }
+        int current = ++transition;
         if (color == GREEN) {
-            System.out.println("Pedestrian traffic light " + id + " blinking " + color);
-            sleep(BLINK_DURATION);
+            SignalEventLog.getDefault().lightBlinking(clock.millis(), this, color);
+            return clock.schedule(BLINK_DURATION, () -> finishTransition(current));
         }
-        color = RED;
-        System.out.println("Pedestrian traffic light " + id + " switched to " + color);
+        switchTo(RED);
+        return completedFuture(null);
+    }
+
+    @Override
+    public synchronized void defaultSignal() {
+        transition++;
+        switchTo(BLACK);
     }
 
     @Override
-    public void defaultSignal() {
-        color = BLACK;
-        System.out.println("Pedestrian traffic light " + id + " switched to " + color);
+    public void assignTo(String intersection) {
+        this.intersection = intersection;
+    }
+
+    @Override
+    public void setListener(LightListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public synchronized void attachTo(LightStateBoard.Slot slot) {
+        this.stateSlot = slot;
+        slot.set(color);
     }
 
     @Override
     public boolean isAllowingTraffic() {
         return color == GREEN;
     }
+
+    private synchronized void finishTransition(int expected) {
+        if (transition == expected) {
+            switchTo(RED);
+        }
+    }
+
+    private void switchTo(Color newColor) {
+        Color oldColor = color;
+        color = newColor;
+        LightStateBoard.Slot slot = stateSlot;
+        if (slot != null) {
+            slot.set(newColor);
+        }
+        SignalEventLog.getDefault().lightSwitched(clock.millis(), this, oldColor, newColor);
+        LightListener current = listener;
+        if (current != null) {
+            current.switched(this, oldColor, newColor);
+        }
+    }
 }
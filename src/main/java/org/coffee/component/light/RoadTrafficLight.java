@@ -1,9 +1,14 @@
 package org.coffee.component.light;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.coffee.component.attribute.Color;
+import org.coffee.component.clock.Clock;
+import org.coffee.component.clock.SystemClock;
+import org.coffee.component.event.SignalEventLog;
+
+import java.util.concurrent.CompletableFuture;
 
-import static java.lang.Thread.sleep;
 import static org.coffee.component.attribute.Color.GREEN;
 import static org.coffee.component.attribute.Color.RED;
 import static org.coffee.component.attribute.Color.YELLOW;
@@ -12,42 +17,91 @@ import static org.coffee.component.attribute.Color.YELLOW;
 public class RoadTrafficLight implements TrafficLight {
     private final String id;
     private final String name;
-    private Color color;
+    private volatile Color color;
     private final Integer yellowDuration;
+    private String intersection;
+    @Getter(AccessLevel.NONE)
+    private volatile LightListener listener;
+    @Getter(AccessLevel.NONE)
+    private volatile LightStateBoard.Slot stateSlot;
+    @Getter(AccessLevel.NONE)
+    private int transition;
+    @Getter(AccessLevel.NONE)
+    private final Clock clock;
 
     public RoadTrafficLight(String id, String name) {
+        this(id, name, SystemClock.INSTANCE);
+    }
+
+    public RoadTrafficLight(String id, String name, Clock clock) {
         this.id = id;
         this.name = name;
         this.color = RED;
         this.yellowDuration = 1500;
+        this.clock = clock;
+    }
+
+    @Override
+    public CompletableFuture<Void> allowTraffic() {
+        return changeThroughYellow(GREEN);
+    }
+
+    @Override
+    public CompletableFuture<Void> stopTraffic() {
+        return changeThroughYellow(RED);
     }
 
     @Override
-    public void allowTraffic() throws InterruptedException {
-        color = YELLOW;
-        System.out.println("Traffic light " + id + " switched to " + color);
-        sleep(yellowDuration);
-        color = GREEN;
-        System.out.println("Traffic light " + id + " switched to " + color);
+    public synchronized void defaultSignal() {
+        transition++;
+        switchTo(YELLOW);
     }
 
     @Override
-    public void stopTraffic() throws InterruptedException {
-        color = YELLOW;
-        System.out.println("Traffic light " + id + " switched to " + color);
-        sleep(yellowDuration);
-        color = RED;
-        System.out.println("Traffic light " + id + " switched to " + color);
+    public void assignTo(String intersection) {
+        this.intersection = intersection;
     }
 
     @Override
-    public void defaultSignal() {
-        color = YELLOW;
-        System.out.println("Traffic light " + id + " switched to " + color);
+    public void setListener(LightListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public synchronized void attachTo(LightStateBoard.Slot slot) {
+        this.stateSlot = slot;
+        slot.set(color);
     }
 
     @Override
     public boolean isAllowingTraffic() {
         return color == GREEN;
     }
+
+    private synchronized CompletableFuture<Void> changeThroughYellow(Color target) {
+        int current = ++transition;
+        switchTo(YELLOW);
+        return clock.schedule(yellowDuration, () -> finishTransition(current, target));
+    }
+
+    // a transition started later wins, the earlier one completes without touching the color
+    private synchronized void finishTransition(int expected, Color target) {
+        if (transition == expected) {
+            switchTo(target);
+        }
+    }
+
+    private void switchTo(Color newColor) {
+        Color oldColor = color;
+        color = newColor;
+        LightStateBoard.Slot slot = stateSlot;
+        if (slot != null) {
+            slot.set(newColor);
+        }
+        SignalEventLog.getDefault().lightSwitched(clock.millis(), this, oldColor, newColor);
+        LightListener current = listener;
+        if (current != null) {
+            current.switched(this, oldColor, newColor);
+        }
+    }
 }
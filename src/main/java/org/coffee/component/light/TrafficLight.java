@@ -1,10 +1,19 @@
 package org.coffee.component.light;
 
+import org.coffee.component.attribute.Color;
+
+import java.util.concurrent.CompletableFuture;
+
 public interface TrafficLight {
     String getId();
     String getName();
-    void allowTraffic() throws Exception;
-    void stopTraffic() throws Exception;
+    String getIntersection();
+    Color getColor();
+    void assignTo(String intersection);
+    void setListener(LightListener listener);
+    void attachTo(LightStateBoard.Slot slot);
+    CompletableFuture<Void> allowTraffic();
+    CompletableFuture<Void> stopTraffic();
     void defaultSignal();
     boolean isAllowingTraffic();
 }
@@ -0,0 +1,74 @@
+package org.coffee.component.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non-negative values with fixed log-linear buckets: values below 16 are exact, above that every power
+ * of two is split into 8 buckets, so a percentile is off by at most 12.5%. Recording does not allocate and is safe
+ * to call from many threads.
+ */
+public class Histogram {
+    private static final int EXACT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = EXACT + (63 - 4) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        long sample = Math.max(0, value);
+        buckets.incrementAndGet(bucketOf(sample));
+        count.incrementAndGet();
+        sum.addAndGet(sample);
+        max.accumulateAndGet(sample, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public HistogramSnapshot snapshot() {
+        long total = count.get();
+        return new HistogramSnapshot(total, sum.get(), max.get(),
+                percentile(total, 0.5), percentile(total, 0.9), percentile(total, 0.99));
+    }
+
+    // Upper bound of the bucket holding the given percentile, never more than the recorded maximum
+    private long percentile(long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int bucketOf(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT) / SUB_BUCKETS + 4;
+        int subBucket = (bucket - EXACT) % SUB_BUCKETS;
+        long lowerBound = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
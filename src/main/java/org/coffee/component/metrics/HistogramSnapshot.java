@@ -0,0 +1,14 @@
+package org.coffee.component.metrics;
+
+public record HistogramSnapshot(long count, long sum, long max, long p50, long p90, long p99) {
+
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    @Override
+    public String toString() {
+        return "count " + count + ", mean " + String.format("%.1f", mean()) + ", p50 " + p50 + ", p90 " + p90
+                + ", p99 " + p99 + ", max " + max;
+    }
+}
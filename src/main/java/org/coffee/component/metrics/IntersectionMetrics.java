@@ -0,0 +1,250 @@
+package org.coffee.component.metrics;
+
+import org.coffee.component.intersection.CollisionMatrix;
+import org.coffee.component.route.Route;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one intersection. The intersection reports every light transition and decision, recording does not
+ * allocate so it can stay enabled in production. Values are read with {@link #snapshot()} or over JMX once
+ * the metrics are registered.
+ * A cycle is green from the end of its allow transition to the start of its stop transition, yellow for both
+ * transitions and all-red from the end of the previous stop transition to the start of its allow transition.
+ * A route waits from the end of its stop transition to the start of its next allow transition, so the first green
+ * of a route after start is not counted.
+ * Delay saved for a priority vehicle is the red it would have met without priority, estimated from the mean waiting
+ * time of its route and how long the route had been red at the arrival, minus the delay it actually had.
+ */
+public class IntersectionMetrics implements IntersectionMetricsMXBean {
+    private final String intersection;
+    private final CollisionMatrix collisionMatrix;
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder skippedCycles = new LongAdder();
+    private final Histogram decisionTimeMicros = new Histogram();
+    private final Histogram allowLatencyMillis = new Histogram();
+    private final Histogram stopLatencyMillis = new Histogram();
+    private final Histogram greenMillis = new Histogram();
+    private final Histogram yellowMillis = new Histogram();
+    private final Histogram allRedMillis = new Histogram();
+    private final Histogram waitingMillis = new Histogram();
+    private final Histogram commandLatencyMillis = new Histogram();
+    private final Histogram timeToGreenMillis = new Histogram();
+    private final Histogram transitDelayMillis = new Histogram();
+    private final Histogram transitDelaySavedMillis = new Histogram();
+    private final AtomicLongArray waitingCount;
+    private final AtomicLongArray waitingTotal;
+    private final AtomicLongArray waitingMax;
+    private final long[] redSince;
+    private long greenSince = -1;
+    private long allowDuration;
+    private long lastStopEnd = -1;
+    private ObjectName objectName;
+
+    public IntersectionMetrics(String intersection, CollisionMatrix collisionMatrix) {
+        this.intersection = intersection;
+        this.collisionMatrix = collisionMatrix;
+        this.waitingCount = new AtomicLongArray(collisionMatrix.size());
+        this.waitingTotal = new AtomicLongArray(collisionMatrix.size());
+        this.waitingMax = new AtomicLongArray(collisionMatrix.size());
+        this.redSince = new long[collisionMatrix.size()];
+        Arrays.fill(redSince, -1);
+    }
+
+    public void decided(long nanos) {
+        decisions.increment();
+        decisionTimeMicros.record(nanos / 1000);
+    }
+
+    public void skippedCycles(int count) {
+        skippedCycles.add(count);
+    }
+
+    public void allowed(List<Route> routes, long startMillis, long endMillis) {
+        allowLatencyMillis.record(endMillis - startMillis);
+        if (lastStopEnd >= 0) {
+            allRedMillis.record(startMillis - lastStopEnd);
+        }
+        for (int i = 0; i < routes.size(); i++) {
+            int route = collisionMatrix.indexOf(routes.get(i));
+            if (redSince[route] >= 0) {
+                recordWaiting(route, startMillis - redSince[route]);
+                redSince[route] = -1;
+            }
+        }
+        allowDuration = endMillis - startMillis;
+        greenSince = endMillis;
+    }
+
+    public void stopped(List<Route> routes, long startMillis, long endMillis) {
+        stopLatencyMillis.record(endMillis - startMillis);
+        if (greenSince >= 0) {
+            greenMillis.record(startMillis - greenSince);
+            yellowMillis.record(allowDuration + endMillis - startMillis);
+            greenSince = -1;
+        }
+        for (int i = 0; i < routes.size(); i++) {
+            redSince[collisionMatrix.indexOf(routes.get(i))] = endMillis;
+        }
+        lastStopEnd = endMillis;
+    }
+
+    public void commandApplied(long millis) {
+        commandLatencyMillis.record(millis);
+    }
+
+    public void preempted(long timeToGreenMillis) {
+        this.timeToGreenMillis.record(timeToGreenMillis);
+    }
+
+    public void transitServed(long delayMillis, long savedMillis) {
+        transitDelayMillis.record(delayMillis);
+        transitDelaySavedMillis.record(savedMillis);
+    }
+
+    /**
+     * Red time left at the given moment for the route if it is served as usual, 0 before any waiting was measured.
+     * A green route is expected to wait its mean waiting time.
+     */
+    public long expectedRedMillis(int route, long atMillis) {
+        long count = waitingCount.get(route);
+        if (count == 0) {
+            return 0;
+        }
+        long mean = waitingTotal.get(route) / count;
+        return redSince[route] < 0 ? mean : Math.max(0, mean - (atMillis - redSince[route]));
+    }
+
+    private void recordWaiting(int route, long millis) {
+        waitingMillis.record(millis);
+        waitingCount.incrementAndGet(route);
+        waitingTotal.addAndGet(route, millis);
+        waitingMax.accumulateAndGet(route, millis, Math::max);
+    }
+
+    public IntersectionMetricsSnapshot snapshot() {
+        Map<String, WaitingTime> waitingPerRoute = new LinkedHashMap<>();
+        for (int i = 0; i < collisionMatrix.size(); i++) {
+            waitingPerRoute.put(collisionMatrix.route(i).getId(),
+                    new WaitingTime(waitingCount.get(i), waitingTotal.get(i), waitingMax.get(i)));
+        }
+        return new IntersectionMetricsSnapshot(intersection, decisions.sum(), skippedCycles.sum(),
+                decisionTimeMicros.snapshot(), allowLatencyMillis.snapshot(), stopLatencyMillis.snapshot(),
+                greenMillis.snapshot(), yellowMillis.snapshot(), allRedMillis.snapshot(), waitingMillis.snapshot(),
+                commandLatencyMillis.snapshot(), timeToGreenMillis.snapshot(), transitDelayMillis.snapshot(),
+                transitDelaySavedMillis.snapshot(), waitingPerRoute);
+    }
+
+    public synchronized void register() {
+        if (objectName != null) {
+            return;
+        }
+        try {
+            var name = new ObjectName("org.coffee:type=Intersection,name=" + ObjectName.quote(intersection));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            objectName = name;
+        } catch (JMException e) {
+            System.out.println("Metrics of intersection " + intersection + " not registered: " + e.getMessage());
+        }
+    }
+
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            System.out.println("Metrics of intersection " + intersection + " not unregistered: " + e.getMessage());
+        }
+        objectName = null;
+    }
+
+    @Override
+    public long getDecisions() {
+        return decisions.sum();
+    }
+
+    @Override
+    public long getSkippedCycles() {
+        return skippedCycles.sum();
+    }
+
+    @Override
+    public double getDecisionTimeMeanMicros() {
+        return decisionTimeMicros.snapshot().mean();
+    }
+
+    @Override
+    public long getDecisionTimeP99Micros() {
+        return decisionTimeMicros.snapshot().p99();
+    }
+
+    @Override
+    public long getAllowLatencyP99Millis() {
+        return allowLatencyMillis.snapshot().p99();
+    }
+
+    @Override
+    public long getAllowLatencyMaxMillis() {
+        return allowLatencyMillis.snapshot().max();
+    }
+
+    @Override
+    public long getStopLatencyP99Millis() {
+        return stopLatencyMillis.snapshot().p99();
+    }
+
+    @Override
+    public long getStopLatencyMaxMillis() {
+        return stopLatencyMillis.snapshot().max();
+    }
+
+    @Override
+    public double getGreenMeanMillis() {
+        return greenMillis.snapshot().mean();
+    }
+
+    @Override
+    public double getYellowMeanMillis() {
+        return yellowMillis.snapshot().mean();
+    }
+
+    @Override
+    public double getAllRedMeanMillis() {
+        return allRedMillis.snapshot().mean();
+    }
+
+    @Override
+    public long getWaitingP99Millis() {
+        return waitingMillis.snapshot().p99();
+    }
+
+    @Override
+    public long getWaitingMaxMillis() {
+        return waitingMillis.snapshot().max();
+    }
+
+    @Override
+    public long getCommandLatencyMaxMillis() {
+        return commandLatencyMillis.snapshot().max();
+    }
+
+    @Override
+    public long getTimeToGreenMaxMillis() {
+        return timeToGreenMillis.snapshot().max();
+    }
+
+    @Override
+    public double getTransitDelaySavedMeanMillis() {
+        return transitDelaySavedMillis.snapshot().mean();
+    }
+}
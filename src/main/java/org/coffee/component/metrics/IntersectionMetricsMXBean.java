@@ -0,0 +1,36 @@
+package org.coffee.component.metrics;
+
+public interface IntersectionMetricsMXBean {
+
+    long getDecisions();
+
+    long getSkippedCycles();
+
+    double getDecisionTimeMeanMicros();
+
+    long getDecisionTimeP99Micros();
+
+    long getAllowLatencyP99Millis();
+
+    long getAllowLatencyMaxMillis();
+
+    long getStopLatencyP99Millis();
+
+    long getStopLatencyMaxMillis();
+
+    double getGreenMeanMillis();
+
+    double getYellowMeanMillis();
+
+    double getAllRedMeanMillis();
+
+    long getWaitingP99Millis();
+
+    long getWaitingMaxMillis();
+
+    long getCommandLatencyMaxMillis();
+
+    long getTimeToGreenMaxMillis();
+
+    double getTransitDelaySavedMeanMillis();
+}
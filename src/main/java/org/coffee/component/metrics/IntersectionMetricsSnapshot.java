@@ -0,0 +1,27 @@
+package org.coffee.component.metrics;
+
+import java.util.Map;
+
+/**
+ * Point in time view of {@link IntersectionMetrics}. Latencies and phase durations are in milliseconds of the
+ * controller clock, decision time is in microseconds of wall time of the update without light transitions and
+ * waits for traffic.
+ */
+public record IntersectionMetricsSnapshot(
+        String intersection,
+        long decisions,
+        long skippedCycles,
+        HistogramSnapshot decisionTimeMicros,
+        HistogramSnapshot allowLatencyMillis,
+        HistogramSnapshot stopLatencyMillis,
+        HistogramSnapshot greenMillis,
+        HistogramSnapshot yellowMillis,
+        HistogramSnapshot allRedMillis,
+        HistogramSnapshot waitingMillis,
+        HistogramSnapshot commandLatencyMillis,
+        HistogramSnapshot timeToGreenMillis,
+        HistogramSnapshot transitDelayMillis,
+        HistogramSnapshot transitDelaySavedMillis,
+        Map<String, WaitingTime> waitingPerRoute
+) {
+}
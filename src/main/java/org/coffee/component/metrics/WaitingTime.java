@@ -0,0 +1,8 @@
+package org.coffee.component.metrics;
+
+public record WaitingTime(long count, long totalMillis, long maxMillis) {
+
+    public double meanMillis() {
+        return count == 0 ? 0 : (double) totalMillis / count;
+    }
+}
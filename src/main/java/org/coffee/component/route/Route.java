@@ -2,15 +2,20 @@ package org.coffee.component.route;
 
 import lombok.Getter;
 import org.coffee.component.attribute.RouteType;
+import org.coffee.component.clock.SystemClock;
 import org.coffee.component.lane.LaneInbound;
 import org.coffee.component.lane.LaneOutbound;
 import org.coffee.component.lane.PedestrianLane;
+import org.coffee.component.light.LightCommand;
+import org.coffee.component.light.LightCommandDispatcher;
 import org.coffee.component.light.TrafficLight;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import static java.util.Collections.emptyList;
+import static org.coffee.component.light.LightCommand.Action.ALLOW;
+import static org.coffee.component.light.LightCommand.Action.STOP;
 
 @Getter
 public class Route {
@@ -22,6 +27,8 @@ public class Route {
     private final List<PedestrianLane> pedestrianLanes;
     private final List<TrafficLight> trafficLights;
     private final int greenTime;
+    private final List<LightCommand> allowCommands;
+    private final List<LightCommand> stopCommands;
 
     public Route(String id, RouteType type, LaneInbound inboundLane, List<LaneOutbound> outboundLanes, List<TrafficLight> trafficLights) {
         this.id = id;
@@ -31,6 +38,8 @@ public class Route {
         this.trafficLights = trafficLights;
         this.greenTime = 10;
         this.pedestrianLanes = emptyList();
+        this.allowCommands = commands(trafficLights, ALLOW);
+        this.stopCommands = commands(trafficLights, STOP);
     }
 
     public Route(String id, RouteType type, LaneInbound inboundLane, List<LaneOutbound> outboundLanes, List<TrafficLight> trafficLights, List<PedestrianLane> pedestrianLanes) {
@@ -41,6 +50,8 @@ public class Route {
         this.trafficLights = trafficLights;
         this.pedestrianLanes = pedestrianLanes;
         this.greenTime = 10;
+        this.allowCommands = commands(trafficLights, ALLOW);
+        this.stopCommands = commands(trafficLights, STOP);
     }
 
     public Route(String id, RouteType type, LaneInbound inboundLane, List<LaneOutbound> outboundLanes, List<TrafficLight> trafficLights, int greenTime) {
@@ -51,41 +62,34 @@ public class Route {
         this.trafficLights = trafficLights;
         this.greenTime = greenTime;
         this.pedestrianLanes = emptyList();
+        this.allowCommands = commands(trafficLights, ALLOW);
+        this.stopCommands = commands(trafficLights, STOP);
     }
 
     public void allowTraffic() {
-        List<CompletableFuture<Void>> trafficFutures = trafficLights.stream()
-                .map(trafficLight -> CompletableFuture.runAsync(() -> {
-                    try {
-                        trafficLight.allowTraffic();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        System.out.println("Thread was interrupted, Failed to doGreen on trafficLight:" + trafficLight.getId());
-                    } catch (Exception e) {
-                        System.out.println("Failed to doGreen on trafficLight:" + trafficLight.getId());
-                    }
-                }))
-                .toList();
-        CompletableFuture.allOf(trafficFutures.toArray(new CompletableFuture[0])).join();
+        SystemClock.INSTANCE.await(allowTrafficAsync(LightCommandDispatcher.getDefault()));
     }
 
     public void stopTraffic() {
-        List<CompletableFuture<Void>> futures = trafficLights.stream()
-            .map(trafficLight -> CompletableFuture.runAsync(() -> {
-                try {
-                    trafficLight.stopTraffic();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    System.out.println("Thread was interrupted, Failed to doRed on trafficLight:" + trafficLight.getId());
-                } catch (Exception e) {
-                    System.out.println("Failed to doRed on trafficLight:" + trafficLight.getId());
-                }
-            })).toList();
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        SystemClock.INSTANCE.await(stopTrafficAsync(LightCommandDispatcher.getDefault()));
+    }
+
+    public CompletableFuture<Void> allowTrafficAsync(LightCommandDispatcher dispatcher) {
+        return dispatcher.dispatch(allowCommands);
+    }
+
+    public CompletableFuture<Void> stopTrafficAsync(LightCommandDispatcher dispatcher) {
+        return dispatcher.dispatch(stopCommands);
     }
 
     public void defaultSignal() {
-        trafficLights.forEach(roadTrafficLight -> CompletableFuture.runAsync(roadTrafficLight::defaultSignal));
+        trafficLights.forEach(TrafficLight::defaultSignal);
+    }
+
+    private static List<LightCommand> commands(List<TrafficLight> trafficLights, LightCommand.Action action) {
+        return trafficLights.stream()
+                .map(trafficLight -> new LightCommand(trafficLight, action))
+                .toList();
     }
 
     public boolean isAllowingTraffic() {
@@ -0,0 +1,112 @@
+package org.coffee.component.safety;
+
+import org.coffee.component.attribute.Color;
+import org.coffee.component.clock.Clock;
+import org.coffee.component.intersection.CollisionMatrix;
+import org.coffee.component.light.TrafficLight;
+import org.coffee.component.route.Route;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.coffee.component.attribute.Color.GREEN;
+
+/**
+ * Watches the lights of an intersection independently of the controller. It keeps a bitset of routes showing green,
+ * a route being green while any of its lights is, and on every light turning green checks the set against the
+ * collision matrix in a few word operations. When conflicting routes are green together the violation is recorded
+ * and the given fallback, normally the default signal, is run on the clock's timer right away, outside of the lock
+ * of the light that reported the change. The lock-out stays in force: transitions already in flight may still turn
+ * a light green, so after a violation every light turning green runs the fallback again.
+ */
+public class SafetyVerifier {
+    private final String intersection;
+    private final CollisionMatrix collisionMatrix;
+    private final Runnable fallback;
+    private final Clock clock;
+    private final long[] green;
+    private final int[] greenLights;
+    private volatile boolean violated;
+    private long violations;
+
+    public SafetyVerifier(String intersection, CollisionMatrix collisionMatrix, Runnable fallback, Clock clock) {
+        this.intersection = intersection;
+        this.collisionMatrix = collisionMatrix;
+        this.fallback = fallback;
+        this.clock = clock;
+        this.green = new long[collisionMatrix.words()];
+        this.greenLights = new int[collisionMatrix.size()];
+
+        Map<TrafficLight, List<Integer>> routesOfLights = new IdentityHashMap<>();
+        for (int route = 0; route < collisionMatrix.size(); route++) {
+            for (TrafficLight light : collisionMatrix.route(route).getTrafficLights()) {
+                routesOfLights.computeIfAbsent(light, ignored -> new ArrayList<>()).add(route);
+            }
+        }
+        routesOfLights.forEach((light, routes) -> {
+            int[] indexes = routes.stream().mapToInt(Integer::intValue).toArray();
+            if (light.isAllowingTraffic()) {
+                switched(indexes, null, GREEN);
+            }
+            light.setListener((ignored, oldColor, newColor) -> switched(indexes, oldColor, newColor));
+        });
+    }
+
+    private synchronized void switched(int[] routes, Color oldColor, Color newColor) {
+        if (oldColor == GREEN && newColor != GREEN) {
+            for (int route : routes) {
+                if (--greenLights[route] == 0) {
+                    green[route >>> 6] &= ~(1L << route);
+                }
+            }
+        } else if (oldColor != GREEN && newColor == GREEN) {
+            if (violated) {
+                clock.schedule(0, fallback);
+            }
+            for (int route : routes) {
+                if (greenLights[route]++ == 0) {
+                    if (!collisionMatrix.canJoin(green, route)) {
+                        violation(route);
+                    }
+                    green[route >>> 6] |= 1L << route;
+                }
+            }
+        }
+    }
+
+    private void violation(int route) {
+        violations++;
+        System.out.println("Safety violation at intersection " + intersection + ": route "
+                + collisionMatrix.route(route).getId() + " green together with conflicting routes " + conflictsOf(route)
+                + ", switching to default signal");
+        if (!violated) {
+            violated = true;
+            clock.schedule(0, fallback);
+        }
+    }
+
+    private List<String> conflictsOf(int route) {
+        List<String> conflicts = new ArrayList<>();
+        for (int other = 0; other < collisionMatrix.size(); other++) {
+            if ((green[other >>> 6] & (1L << other)) != 0 && !collisionMatrix.isCompatible(route, other)) {
+                conflicts.add(collisionMatrix.route(other).getId());
+            }
+        }
+        return conflicts;
+    }
+
+    public boolean isViolated() {
+        return violated;
+    }
+
+    public synchronized long getViolations() {
+        return violations;
+    }
+
+    public synchronized boolean isGreen(Route route) {
+        int index = collisionMatrix.indexOf(route);
+        return (green[index >>> 6] & (1L << index)) != 0;
+    }
+}
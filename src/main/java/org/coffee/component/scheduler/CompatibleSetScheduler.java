@@ -0,0 +1,206 @@
+package org.coffee.component.scheduler;
+
+import org.coffee.component.intersection.CollisionMatrix;
+
+import static org.coffee.component.attribute.RouteType.CONDITIONAL;
+
+/**
+ * Cycle-less scheduler. At every decision it picks the set of mutually compatible routes with the highest total
+ * weight, where weight of a route is its current pressure plus the number of decisions it has been waiting
+ * with traffic. Routes that waited {@code maxAge} decisions are served first regardless of their pressure.
+ * Waiting is counted from the last green and ends only when the route is served or its smoothed demand drops to
+ * zero, so a single empty reading does not restart it.
+ * Conditional routes are never scheduled: like in cycle modes, where {@link org.coffee.component.cycle.Cycle#allowTraffic()}
+ * skips them, conditional arrows stay dark unless {@link org.coffee.component.cycle.Cycle#allowTrafficForConditionalRoutes()}
+ * is called explicitly, and no automatic decision does that.
+ */
+public class CompatibleSetScheduler {
+    private static final int SEARCH_BUDGET = 20_000;
+    private static final double NO_DEMAND = 0.01;
+
+    private final CollisionMatrix collisionMatrix;
+    private final int maxAge;
+    private final int size;
+    private final int words;
+    private final int[] ages;
+    private final int[] weights;
+    private final int[] order;
+    private final long[] schedulable;
+    private final long[][] candidatesByDepth;
+    private final long[] current;
+    private final long[] best;
+    private int candidateCount;
+    private int bestWeight;
+    private int nodes;
+
+    public CompatibleSetScheduler(CollisionMatrix collisionMatrix, int maxAge) {
+        this.collisionMatrix = collisionMatrix;
+        this.maxAge = maxAge;
+        this.size = collisionMatrix.size();
+        this.words = collisionMatrix.words();
+        this.ages = new int[size];
+        this.weights = new int[size];
+        this.order = new int[size];
+        this.schedulable = new long[words];
+        this.candidatesByDepth = new long[size + 1][words];
+        this.current = new long[words];
+        this.best = new long[words];
+        for (int i = 0; i < size; i++) {
+            if (collisionMatrix.route(i).getType() != CONDITIONAL) {
+                schedulable[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Chooses routes as {@link #nextGreenSet(int[], double[])} with current pressures taken as demand.
+     */
+    public long[] nextGreenSet(int[] pressures) {
+        double[] demands = new double[size];
+        for (int i = 0; i < size; i++) {
+            demands[i] = pressures[i];
+        }
+        return nextGreenSet(pressures, demands);
+    }
+
+    /**
+     * Chooses routes to be green for the next period and updates waiting ages.
+     *
+     * @param pressures pressure of every route, indexed like the collision matrix
+     * @param demands smoothed demand of every route, indexed like the collision matrix
+     * @return bitset of chosen routes
+     */
+    public long[] nextGreenSet(int[] pressures, double[] demands) {
+        clear(current);
+        clear(best);
+        bestWeight = 0;
+        nodes = 0;
+
+        int forced = seedStarvingRoutes(pressures, demands);
+        long[] candidates = candidatesByDepth[0];
+        clear(candidates);
+        candidateCount = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = pressures[i] > 0 ? pressures[i] + ages[i] : 0;
+            if (weights[i] > 0 && isSet(schedulable, i) && !isSet(current, i) && collisionMatrix.canJoin(current, i)) {
+                candidates[i >>> 6] |= 1L << i;
+                order[candidateCount++] = i;
+            }
+        }
+        sortByWeightDescending();
+
+        greedy(forced);
+        search(0, forced);
+
+        fillWithCompatibleRoutes();
+        updateAges(demands);
+        return best.clone();
+    }
+
+    public int getAge(int route) {
+        return ages[route];
+    }
+
+    private int seedStarvingRoutes(int[] pressures, double[] demands) {
+        int weight = 0;
+        while (true) {
+            int oldest = -1;
+            for (int i = 0; i < size; i++) {
+                if (demands[i] >= NO_DEMAND && ages[i] >= maxAge && isSet(schedulable, i) && !isSet(current, i)
+                        && collisionMatrix.canJoin(current, i) && (oldest < 0 || ages[i] > ages[oldest])) {
+                    oldest = i;
+                }
+            }
+            if (oldest < 0) {
+                return weight;
+            }
+            current[oldest >>> 6] |= 1L << oldest;
+            weight += pressures[oldest] + ages[oldest];
+        }
+    }
+
+    private void greedy(int forcedWeight) {
+        System.arraycopy(current, 0, best, 0, words);
+        bestWeight = forcedWeight;
+        for (int k = 0; k < candidateCount; k++) {
+            int route = order[k];
+            if (collisionMatrix.canJoin(best, route)) {
+                best[route >>> 6] |= 1L << route;
+                bestWeight += weights[route];
+            }
+        }
+    }
+
+    // Branch and bound over candidates ordered by weight, bounded by the sum of remaining candidate weights
+    private void search(int depth, int weight) {
+        if (weight > bestWeight) {
+            bestWeight = weight;
+            System.arraycopy(current, 0, best, 0, words);
+        }
+        long[] candidates = candidatesByDepth[depth];
+        int remaining = 0;
+        for (int w = 0; w < words; w++) {
+            long bits = candidates[w];
+            while (bits != 0) {
+                remaining += weights[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                bits &= bits - 1;
+            }
+        }
+        for (int k = 0; k < candidateCount && remaining > 0; k++) {
+            int route = order[k];
+            if (weight + remaining <= bestWeight || ++nodes > SEARCH_BUDGET) {
+                return;
+            }
+            if (!isSet(candidates, route)) {
+                continue;
+            }
+            candidates[route >>> 6] &= ~(1L << route);
+            remaining -= weights[route];
+
+            long[] next = candidatesByDepth[depth + 1];
+            long[] compatible = collisionMatrix.compatibleWith(route);
+            for (int w = 0; w < words; w++) {
+                next[w] = candidates[w] & compatible[w];
+            }
+            current[route >>> 6] |= 1L << route;
+            search(depth + 1, weight + weights[route]);
+            current[route >>> 6] &= ~(1L << route);
+        }
+    }
+
+    private void fillWithCompatibleRoutes() {
+        for (int i = 0; i < size; i++) {
+            if (isSet(schedulable, i) && !isSet(best, i) && collisionMatrix.canJoin(best, i)) {
+                best[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    private void updateAges(double[] demands) {
+        for (int i = 0; i < size; i++) {
+            ages[i] = isSet(best, i) || demands[i] < NO_DEMAND ? 0 : ages[i] + 1;
+        }
+    }
+
+    private void sortByWeightDescending() {
+        for (int i = 1; i < candidateCount; i++) {
+            int route = order[i];
+            int j = i - 1;
+            while (j >= 0 && weights[order[j]] < weights[route]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = route;
+        }
+    }
+
+    private static boolean isSet(long[] set, int index) {
+        return (set[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void clear(long[] set) {
+        for (int i = 0; i < set.length; i++) {
+            set[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.coffee.component.scheduler;
+
+/**
+ * Chooses the next cycle by priority instead of strict rotation. Priority of a cycle is its demand plus the number
+ * of decisions since it was last green, so busy cycles are served more often and idle ones still come back.
+ * A cycle with demand that has waited {@code maxAge} decisions is served before any other, the longest waiting first.
+ * The green cycle is not a candidate until it is replaced. When demand is required only cycles with demand compete,
+ * so an idle cycle with higher priority never holds back one with cars waiting.
+ * Since waiting grows by one for all cycles at every decision, the heap key is demand minus the decision the cycle
+ * was last green, which changes only when demand changes or the cycle is served. Updates take O(log n).
+ */
+public class CyclePriorityScheduler {
+    private final int maxAge;
+    private final IndexedHeap byPriority;
+    private final IndexedHeap byDemandPriority;
+    private final IndexedHeap byWaiting;
+    private final int[] demands;
+    private final long[] lastGreen;
+    private long decisions;
+    private int current = -1;
+
+    public CyclePriorityScheduler(int cycles, int maxAge) {
+        this.maxAge = maxAge;
+        this.byPriority = new IndexedHeap(cycles);
+        this.byDemandPriority = new IndexedHeap(cycles);
+        this.byWaiting = new IndexedHeap(cycles);
+        this.demands = new int[cycles];
+        this.lastGreen = new long[cycles];
+        for (int cycle = 0; cycle < cycles; cycle++) {
+            byPriority.put(cycle, 0);
+        }
+    }
+
+    public void update(int cycle, int demand) {
+        demands[cycle] = demand;
+        if (cycle != current) {
+            enqueue(cycle);
+        }
+    }
+
+    /**
+     * Marks the chosen cycle green and returns it, or returns -1 when no other cycle is waiting or, if demand is
+     * required, none of them has demand.
+     */
+    public int next(boolean demandRequired) {
+        int chosen = byWaiting.peek();
+        if (chosen < 0 || getWaiting(chosen) < maxAge) {
+            chosen = demandRequired ? byDemandPriority.peek() : byPriority.peek();
+        }
+        if (chosen < 0) {
+            return -1;
+        }
+        select(chosen);
+        return chosen;
+    }
+
+    /**
+     * Marks the cycle green regardless of priorities, e.g. when it was chosen manually.
+     */
+    public void select(int chosen) {
+        if (chosen == current) {
+            return;
+        }
+        decisions++;
+        if (current >= 0) {
+            lastGreen[current] = decisions;
+            enqueue(current);
+        }
+        byPriority.remove(chosen);
+        byDemandPriority.remove(chosen);
+        byWaiting.remove(chosen);
+        current = chosen;
+    }
+
+    /**
+     * Makes the green cycle a candidate again, e.g. after all lights were switched off.
+     */
+    public void release() {
+        if (current >= 0) {
+            lastGreen[current] = decisions;
+            enqueue(current);
+            current = -1;
+        }
+    }
+
+    /**
+     * Counts decisions taken without any cycle of the plan, e.g. during preemption, so cycles waiting through them
+     * get closer to {@code maxAge}.
+     */
+    public void skip(int decisions) {
+        this.decisions += decisions;
+    }
+
+    /**
+     * Number of decisions since the cycle was green, 0 for the green cycle.
+     */
+    public long getWaiting(int cycle) {
+        return cycle == current ? 0 : decisions - lastGreen[cycle];
+    }
+
+    public int getCurrent() {
+        return current;
+    }
+
+    public int size() {
+        return byPriority.size();
+    }
+
+    private void enqueue(int cycle) {
+        byPriority.put(cycle, demands[cycle] - lastGreen[cycle]);
+        if (demands[cycle] > 0) {
+            byDemandPriority.put(cycle, demands[cycle] - lastGreen[cycle]);
+            byWaiting.put(cycle, -lastGreen[cycle]);
+        } else {
+            byDemandPriority.remove(cycle);
+            byWaiting.remove(cycle);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.coffee.component.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Binary max-heap of element indexes {@code 0..capacity-1} with long keys. Position of every element is tracked,
+ * so changing the key of an element or removing it takes O(log n). Equal keys are ordered by lower index first.
+ */
+public class IndexedHeap {
+    private final int[] heap;
+    private final int[] positions;
+    private final long[] keys;
+    private int size;
+
+    public IndexedHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new long[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int element) {
+        return positions[element] >= 0;
+    }
+
+    public long key(int element) {
+        return keys[element];
+    }
+
+    /**
+     * Element with the highest key or -1 when the heap is empty.
+     */
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Inserts the element or changes its key when it is already in the heap.
+     */
+    public void put(int element, long key) {
+        int position = positions[element];
+        if (position < 0) {
+            keys[element] = key;
+            heap[size] = element;
+            positions[element] = size;
+            siftUp(size++);
+        } else if (key != keys[element]) {
+            long old = keys[element];
+            keys[element] = key;
+            if (key > old) {
+                siftUp(position);
+            } else {
+                siftDown(position);
+            }
+        }
+    }
+
+    public void remove(int element) {
+        int position = positions[element];
+        if (position < 0) {
+            return;
+        }
+        int last = heap[--size];
+        positions[element] = -1;
+        if (position == size) {
+            return;
+        }
+        heap[position] = last;
+        positions[last] = position;
+        siftDown(position);
+        siftUp(positions[last]);
+    }
+
+    private void siftUp(int position) {
+        int element = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(element, heap[parent])) {
+                break;
+            }
+            move(heap[parent], position);
+            position = parent;
+        }
+        move(element, position);
+    }
+
+    private void siftDown(int position) {
+        int element = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], element)) {
+                break;
+            }
+            move(heap[child], position);
+            position = child;
+        }
+        move(element, position);
+    }
+
+    private void move(int element, int position) {
+        heap[position] = element;
+        positions[element] = position;
+    }
+
+    private boolean before(int element1, int element2) {
+        return keys[element1] > keys[element2] || keys[element1] == keys[element2] && element1 < element2;
+    }
+}
@@ -1,5 +1,6 @@
 package org.coffee.component.sensor;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.util.Random;
@@ -9,11 +10,17 @@ public class Camera {
     private final String id;
     private final String name;
     private final Random random;
+    @Getter(AccessLevel.NONE)
+    private volatile DemandSignal demandSignal;
 
     public Camera(String id, String name) {
+        this(id, name, new Random());
+    }
+
+    public Camera(String id, String name, Random random) {
         this.id = id;
         this.name = name;
-        this.random = new Random();
+        this.random = random;
     }
 
     //simulation of camera detecting cars on the lane
@@ -21,4 +28,16 @@ public class Camera {
         boolean shouldReturnZero = random.nextBoolean();
         return shouldReturnZero ? 0 : random.nextInt(11);
     }
+
+    public void connect(DemandSignal demandSignal) {
+        this.demandSignal = demandSignal;
+    }
+
+    //called by cameras detecting vehicles on their own, wakes the intersection waiting for traffic
+    protected void detected() {
+        DemandSignal signal = demandSignal;
+        if (signal != null) {
+            signal.signal();
+        }
+    }
 }
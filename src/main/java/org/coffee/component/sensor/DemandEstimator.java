@@ -0,0 +1,68 @@
+package org.coffee.component.sensor;
+
+/**
+ * Streaming estimate of traffic on one lane, fed with camera readings. Keeps an exponentially weighted moving average
+ * of the number of cars and a fixed window of recent readings, from which the arrival rate is taken as the sum of
+ * increases between consecutive readings over the time the window covers. Cars leaving on green hide arrivals,
+ * so the rate is a lower bound. Updates take constant time and do not allocate.
+ */
+public class DemandEstimator {
+    private final double alpha;
+    private final int[] cars;
+    private final long[] times;
+    private final int[] increases;
+    private int newest = -1;
+    private int size;
+    private long windowCars;
+    private long windowIncreases;
+    private double smoothed;
+
+    public DemandEstimator(double alpha, int window) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Smoothing factor must be in (0, 1]");
+        }
+        if (window < 2) {
+            throw new IllegalArgumentException("Window must hold at least two readings");
+        }
+        this.alpha = alpha;
+        this.cars = new int[window];
+        this.times = new long[window];
+        this.increases = new int[window];
+    }
+
+    public void add(long millis, int count) {
+        int slot = (newest + 1) % cars.length;
+        int increase = size == 0 ? 0 : Math.max(0, count - cars[newest]);
+        if (size == cars.length) {
+            windowCars -= cars[slot];
+            windowIncreases -= increases[slot];
+        } else {
+            size++;
+        }
+        smoothed = newest < 0 ? count : smoothed + alpha * (count - smoothed);
+        cars[slot] = count;
+        times[slot] = millis;
+        increases[slot] = increase;
+        windowCars += count;
+        windowIncreases += increase;
+        newest = slot;
+    }
+
+    public double getSmoothed() {
+        return smoothed;
+    }
+
+    public double getWindowMean() {
+        return size == 0 ? 0 : (double) windowCars / size;
+    }
+
+    public double getArrivalsPerSecond() {
+        if (size < 2) {
+            return 0;
+        }
+        int oldest = (newest + 1 + cars.length - size) % cars.length;
+        long millis = times[newest] - times[oldest];
+        // increase of the oldest reading happened before the window
+        return millis <= 0 ? 0 : (windowIncreases - increases[oldest]) * 1000.0 / millis;
+    }
+}
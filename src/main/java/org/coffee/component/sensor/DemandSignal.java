@@ -0,0 +1,57 @@
+package org.coffee.component.sensor;
+
+import org.coffee.component.clock.Clock;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Wakes an intersection waiting for traffic. Sensors able to detect vehicles on their own signal it, the intersection
+ * takes the version before sampling sensors and waits with it, so a detection between sampling and waiting is not lost.
+ * Waiting goes through the clock and therefore works in simulation as well; in real time it is interruptible and
+ * leaves no timer behind.
+ */
+public class DemandSignal {
+    private long version;
+    private CompletableFuture<Void> next = new CompletableFuture<>();
+    private final Clock clock;
+
+    public DemandSignal(Clock clock) {
+        this.clock = clock;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public void signal() {
+        CompletableFuture<Void> signalled;
+        synchronized (this) {
+            version++;
+            signalled = next;
+            next = new CompletableFuture<>();
+        }
+        signalled.complete(null);
+    }
+
+    /**
+     * Waits until the signal changes from the given version or the timeout passes. Returns true when it was signalled.
+     */
+    public boolean await(long version, long timeoutMillis) throws InterruptedException {
+        return await(version, timeoutMillis, new CompletableFuture<>());
+    }
+
+    /**
+     * Waits as {@link #await(long, long)}, but returns early also when {@code wakeUp} completes.
+     */
+    public boolean await(long version, long timeoutMillis, CompletableFuture<?> wakeUp) throws InterruptedException {
+        CompletableFuture<Void> signalled;
+        synchronized (this) {
+            if (this.version != version) {
+                return true;
+            }
+            signalled = next;
+        }
+        clock.await(CompletableFuture.anyOf(signalled, wakeUp), timeoutMillis);
+        return signalled.isDone();
+    }
+}
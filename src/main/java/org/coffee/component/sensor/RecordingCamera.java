@@ -0,0 +1,38 @@
+package org.coffee.component.sensor;
+
+import org.coffee.component.clock.Clock;
+
+/**
+ * Camera passing readings of another camera through and writing each of them to a sensor trace.
+ */
+public class RecordingCamera extends Camera {
+    private final Camera camera;
+    private final SensorTraceWriter writer;
+    private final int lane;
+    private final Clock clock;
+
+    public RecordingCamera(Camera camera, SensorTraceWriter writer, String laneId, Clock clock) {
+        super(camera.getId(), camera.getName(), camera.getRandom());
+        this.camera = camera;
+        this.writer = writer;
+        this.lane = writer.lane(laneId);
+        this.clock = clock;
+    }
+
+    @Override
+    public int getCars() {
+        int cars = camera.getCars();
+        writer.record(lane, clock.millis(), cars);
+        return cars;
+    }
+
+    @Override
+    public void connect(DemandSignal demandSignal) {
+        camera.connect(demandSignal);
+    }
+
+    @Override
+    protected void detected() {
+        camera.detected();
+    }
+}
@@ -0,0 +1,100 @@
+package org.coffee.component.sensor;
+
+import org.coffee.component.clock.Clock;
+
+import java.util.Arrays;
+
+/**
+ * Camera returning readings of one lane of a sensor trace. Trace time runs from the start of the trace at
+ * {@code replayStartMillis} of the clock, multiplied by {@code speed}. A read returns the latest reading at or before
+ * the trace time. Readings taken at the same time are returned one by one in recorded order, so a replay with the same
+ * reads at original speed gives exactly the recorded values. Before the first reading the lane is empty. Once connected,
+ * the camera reports a detection on the clock at the replay time of every reading with cars.
+ */
+public class ReplayCamera extends Camera {
+    private final long[] times;
+    private final int[] cars;
+    private final int size;
+    private final long traceStartMillis;
+    private final long replayStartMillis;
+    private final Clock clock;
+    private final double speed;
+    private int next;
+    private boolean detecting;
+
+    public ReplayCamera(String id, String name, SensorTrace trace, String laneId, Clock clock, long replayStartMillis, double speed) {
+        super(id, name, null);
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Replay speed must be positive, got " + speed);
+        }
+        int lane = trace.indexOf(laneId);
+        this.times = trace.times(lane);
+        this.cars = trace.cars(lane);
+        this.size = trace.size(lane);
+        this.traceStartMillis = trace.getStartMillis();
+        this.clock = clock;
+        this.replayStartMillis = replayStartMillis;
+        this.speed = speed;
+    }
+
+    @Override
+    public synchronized int getCars() {
+        long traceTime = traceStartMillis + (long) ((clock.millis() - replayStartMillis) * speed);
+        int last = lastAtOrBefore(traceTime);
+        if (last < 0) {
+            return 0;
+        }
+        int first = last;
+        while (first > 0 && times[first - 1] == times[last]) {
+            first--;
+        }
+        if (next < first) {
+            next = first;
+        }
+        if (next <= last) {
+            return cars[next++];
+        }
+        return cars[last];
+    }
+
+    @Override
+    public synchronized void connect(DemandSignal demandSignal) {
+        super.connect(demandSignal);
+        if (!detecting) {
+            detecting = true;
+            long traceTime = traceStartMillis + (long) ((clock.millis() - replayStartMillis) * speed);
+            scheduleDetection(lastAtOrBefore(traceTime - 1) + 1);
+        }
+    }
+
+    private void scheduleDetection(int from) {
+        int index = from;
+        while (index < size && cars[index] == 0) {
+            index++;
+        }
+        if (index == size) {
+            return;
+        }
+        int following = index + 1;
+        while (following < size && times[following] == times[index]) {
+            following++;
+        }
+        long replayMillis = replayStartMillis + (long) Math.ceil((times[index] - traceStartMillis) / speed);
+        int nextDetection = following;
+        clock.schedule(replayMillis - clock.millis(), () -> {
+            detected();
+            scheduleDetection(nextDetection);
+        });
+    }
+
+    private int lastAtOrBefore(long traceTime) {
+        int index = Arrays.binarySearch(times, 0, size, traceTime);
+        if (index < 0) {
+            return -index - 2;
+        }
+        while (index + 1 < size && times[index + 1] == traceTime) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,53 @@
+package org.coffee.component.sensor;
+
+import org.coffee.component.lane.LaneInbound;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Reads many sensors at once. Every sensor is read in its own task, so slow devices are queried in parallel
+ * instead of one after another. The default sampler runs the reads on virtual threads.
+ */
+public class SensorSampler {
+    private static volatile SensorSampler defaultSampler;
+
+    private final Executor executor;
+
+    /**
+     * Sampler running reads on given executor, e.g. {@code Runnable::run} for single-threaded simulation.
+     */
+    public SensorSampler(Executor executor) {
+        this.executor = executor;
+    }
+
+    public static SensorSampler getDefault() {
+        if (defaultSampler == null) {
+            synchronized (SensorSampler.class) {
+                if (defaultSampler == null) {
+                    defaultSampler = new SensorSampler(Executors.newVirtualThreadPerTaskExecutor());
+                }
+            }
+        }
+        return defaultSampler;
+    }
+
+    /**
+     * Reads cameras of the first {@code count} lanes listed in {@code selected} and stores the number of cars at the lane
+     * index in {@code cars}. Returns when all reads are done.
+     */
+    public void read(LaneInbound[] lanes, int[] selected, int count, int[] cars) {
+        if (count == 1) {
+            int lane = selected[0];
+            cars[lane] = lanes[lane].getCamera().getCars();
+            return;
+        }
+        CompletableFuture<?>[] reads = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            int lane = selected[i];
+            reads[i] = CompletableFuture.runAsync(() -> cars[lane] = lanes[lane].getCamera().getCars(), executor);
+        }
+        CompletableFuture.allOf(reads).join();
+    }
+}
@@ -0,0 +1,96 @@
+package org.coffee.component.sensor;
+
+import org.coffee.component.clock.Clock;
+import org.coffee.component.lane.LaneInbound;
+import org.coffee.component.route.Route;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Number of cars on every inbound lane of an intersection, read once per decision. Routes sharing an inbound lane
+ * share its reading. {@link #refresh()} reads only lanes whose reading is older than the TTL, all of them in parallel;
+ * between refreshes pressures are plain array reads. Every reading also feeds a {@link DemandEstimator} of its lane,
+ * configured with {@code traffic.demand.alpha} and {@code traffic.demand.window}.
+ */
+public class SensorSnapshot {
+    private static final double DEMAND_ALPHA = Double.parseDouble(System.getProperty("traffic.demand.alpha", "0.3"));
+    private static final int DEMAND_WINDOW = Integer.getInteger("traffic.demand.window", 16);
+
+    private final LaneInbound[] lanes;
+    private final int[] routeLanes;
+    private final int[] pressures;
+    private final long[] readAt;
+    private final int[] stale;
+    private final DemandEstimator[] estimators;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final SensorSampler sampler;
+
+    public SensorSnapshot(List<Route> routes, long ttlMillis, Clock clock, SensorSampler sampler) {
+        Map<LaneInbound, Integer> indexes = new IdentityHashMap<>();
+        this.routeLanes = new int[routes.size()];
+        for (int i = 0; i < routes.size(); i++) {
+            routeLanes[i] = indexes.computeIfAbsent(routes.get(i).getInboundLane(), lane -> indexes.size());
+        }
+        this.lanes = new LaneInbound[indexes.size()];
+        indexes.forEach((lane, index) -> lanes[index] = lane);
+        this.pressures = new int[lanes.length];
+        this.readAt = new long[lanes.length];
+        this.stale = new int[lanes.length];
+        this.estimators = new DemandEstimator[lanes.length];
+        for (int lane = 0; lane < lanes.length; lane++) {
+            estimators[lane] = new DemandEstimator(DEMAND_ALPHA, DEMAND_WINDOW);
+        }
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.sampler = sampler;
+        Arrays.fill(readAt, Long.MIN_VALUE);
+    }
+
+    public void refresh() {
+        long now = clock.millis();
+        int count = 0;
+        for (int lane = 0; lane < lanes.length; lane++) {
+            if (readAt[lane] == Long.MIN_VALUE || now - readAt[lane] >= ttlMillis) {
+                stale[count++] = lane;
+                readAt[lane] = now;
+            }
+        }
+        if (count > 0) {
+            sampler.read(lanes, stale, count, pressures);
+            for (int i = 0; i < count; i++) {
+                estimators[stale[i]].add(now, pressures[stale[i]]);
+            }
+        }
+    }
+
+    /**
+     * Pressure of every lane, indexed like {@link #getLane(int)}. The array is updated in place by refresh.
+     */
+    public int[] getPressures() {
+        return pressures;
+    }
+
+    public LaneInbound getLane(int lane) {
+        return lanes[lane];
+    }
+
+    public int getLanes() {
+        return lanes.length;
+    }
+
+    public int laneOf(int route) {
+        return routeLanes[route];
+    }
+
+    public int routePressure(int route) {
+        return pressures[routeLanes[route]];
+    }
+
+    public DemandEstimator routeEstimator(int route) {
+        return estimators[routeLanes[route]];
+    }
+}
@@ -0,0 +1,141 @@
+package org.coffee.component.sensor;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Sensor readings loaded from a trace written by {@link SensorTraceWriter}. The file is memory-mapped and decoded into
+ * primitive arrays of times and numbers of cars per lane.
+ */
+public class SensorTrace {
+    private final long startMillis;
+    private final List<String> lanes = new ArrayList<>();
+    private final List<long[]> times = new ArrayList<>();
+    private final List<int[]> cars = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private long endMillis;
+
+    private SensorTrace(long startMillis) {
+        this.startMillis = startMillis;
+        this.endMillis = startMillis;
+    }
+
+    public static SensorTrace read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            return decode(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Sensor trace " + file + " is truncated", e);
+        }
+    }
+
+    private static SensorTrace decode(Path file, MappedByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != SensorTraceWriter.MAGIC || buffer.getInt() != SensorTraceWriter.VERSION) {
+            throw new IOException("File " + file + " is not a sensor trace");
+        }
+        var trace = new SensorTrace(buffer.getLong());
+        long timestamp = trace.startMillis;
+        int[] lastCars = new int[0];
+        while (buffer.hasRemaining()) {
+            long tag = getVarint(buffer);
+            if (tag == 0) {
+                long length = getVarint(buffer);
+                if (length > buffer.remaining()) {
+                    throw new IOException("Sensor trace " + file + " is truncated");
+                }
+                byte[] id = new byte[(int) length];
+                buffer.get(id);
+                trace.addLane(new String(id, StandardCharsets.UTF_8));
+                lastCars = Arrays.copyOf(lastCars, trace.lanes.size());
+                continue;
+            }
+            if (tag > trace.lanes.size()) {
+                throw new IOException("Sensor trace " + file + " refers to unknown lane " + (tag - 1));
+            }
+            int lane = (int) tag - 1;
+            timestamp += unzigzag(getVarint(buffer));
+            lastCars[lane] += (int) unzigzag(getVarint(buffer));
+            trace.add(lane, timestamp, lastCars[lane]);
+        }
+        return trace;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    public List<String> getLanes() {
+        return List.copyOf(lanes);
+    }
+
+    public int getSamples(String laneId) {
+        return sizes.get(indexOf(laneId));
+    }
+
+    long[] times(int lane) {
+        return times.get(lane);
+    }
+
+    int[] cars(int lane) {
+        return cars.get(lane);
+    }
+
+    int size(int lane) {
+        return sizes.get(lane);
+    }
+
+    int indexOf(String laneId) {
+        int index = lanes.indexOf(laneId);
+        if (index < 0) {
+            throw new IllegalArgumentException("Lane " + laneId + " is not part of the trace");
+        }
+        return index;
+    }
+
+    private void addLane(String laneId) {
+        lanes.add(laneId);
+        times.add(new long[16]);
+        cars.add(new int[16]);
+        sizes.add(0);
+    }
+
+    private void add(int lane, long timestamp, int value) {
+        int size = sizes.get(lane);
+        if (size == times.get(lane).length) {
+            times.set(lane, Arrays.copyOf(times.get(lane), size * 2));
+            cars.set(lane, Arrays.copyOf(cars.get(lane), size * 2));
+        }
+        times.get(lane)[size] = timestamp;
+        cars.get(lane)[size] = value;
+        sizes.set(lane, size + 1);
+        endMillis = Math.max(endMillis, timestamp);
+    }
+
+    private static long getVarint(MappedByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,106 @@
+package org.coffee.component.sensor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes sensor readings to a compact binary trace. The file starts with a magic number, a version and the start
+ * time. Every entry starts with a varint tag: 0 defines the next lane and is followed by its id, any other value is
+ * a reading of lane {@code tag - 1} followed by zigzag varint deltas of time and number of cars against the previous
+ * reading of the trace and of the lane.
+ */
+public class SensorTraceWriter implements AutoCloseable {
+    static final int MAGIC = 0x53454E54;
+    static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final Map<String, Integer> lanes = new HashMap<>();
+    private int[] lastCars = new int[16];
+    private long lastTimestamp;
+
+    public SensorTraceWriter(Path file, long startMillis) throws IOException {
+        this.channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE);
+        this.lastTimestamp = startMillis;
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(startMillis);
+    }
+
+    /**
+     * Returns index of the lane in the trace, defining the lane on first use.
+     */
+    public synchronized int lane(String laneId) {
+        Integer index = lanes.get(laneId);
+        if (index != null) {
+            return index;
+        }
+        byte[] id = laneId.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(2 * 5 + id.length);
+        putVarint(0);
+        putVarint(id.length);
+        buffer.put(id);
+        index = lanes.size();
+        lanes.put(laneId, index);
+        if (index == lastCars.length) {
+            lastCars = Arrays.copyOf(lastCars, index * 2);
+        }
+        return index;
+    }
+
+    public synchronized void record(int lane, long timestamp, int cars) {
+        ensureCapacity(5 + 10 + 5);
+        putVarint(lane + 1);
+        putVarint(zigzag(timestamp - lastTimestamp));
+        putVarint(zigzag(cars - lastCars[lane]));
+        lastTimestamp = timestamp;
+        lastCars[lane] = cars;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writeBuffer();
+        channel.force(false);
+        channel.close();
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            try {
+                writeBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write sensor trace", e);
+            }
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,11 @@
+package org.coffee.component.transit;
+
+import org.coffee.component.attribute.PriorityVehicle;
+import org.coffee.component.route.Route;
+
+/**
+ * Announcement of a priority vehicle expected at the stop line of the route at {@code arrivalMillis} of the
+ * controller clock.
+ */
+public record PriorityRequest(Route route, PriorityVehicle vehicle, long arrivalMillis) {
+}
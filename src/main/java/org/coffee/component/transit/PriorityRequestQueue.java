@@ -0,0 +1,66 @@
+package org.coffee.component.transit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Priority requests waiting to be served, ordered by expected arrival, which is the deadline for giving them green.
+ * Used only by the thread updating the intersection. A request whose vehicle has passed the stop line, served or not,
+ * is dropped.
+ */
+public class PriorityRequestQueue {
+    private static final Comparator<PriorityRequest> BY_ARRIVAL = Comparator.comparingLong(PriorityRequest::arrivalMillis);
+
+    private final long passMillis;
+    private final List<PriorityRequest> requests = new ArrayList<>();
+
+    public PriorityRequestQueue(long passMillis) {
+        this.passMillis = passMillis;
+    }
+
+    public void add(PriorityRequest request) {
+        int position = Collections.binarySearch(requests, request, BY_ARRIVAL);
+        if (position < 0) {
+            position = -position - 1;
+        } else {
+            // equal arrivals are served in order of their requests
+            while (position < requests.size() && requests.get(position).arrivalMillis() == request.arrivalMillis()) {
+                position++;
+            }
+        }
+        requests.add(position, request);
+    }
+
+    public void remove(PriorityRequest request) {
+        requests.remove(request);
+    }
+
+    /**
+     * Drops requests of vehicles that passed before the given time and returns how many were dropped.
+     */
+    public int expire(long nowMillis) {
+        int expired = 0;
+        while (!requests.isEmpty() && requests.getFirst().arrivalMillis() + passMillis < nowMillis) {
+            requests.removeFirst();
+            expired++;
+        }
+        return expired;
+    }
+
+    /**
+     * Waiting requests, earliest deadline first.
+     */
+    public List<PriorityRequest> requests() {
+        return Collections.unmodifiableList(requests);
+    }
+
+    public boolean isEmpty() {
+        return requests.isEmpty();
+    }
+
+    public int size() {
+        return requests.size();
+    }
+}
@@ -0,0 +1,71 @@
+package org.coffee.simulation;
+
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.intersection.Intersection;
+import org.coffee.component.intersection.IntersectionEnvironment;
+import org.coffee.component.route.Route;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs an unchanged intersection on virtual time. Light commands are executed in the calling thread and every wait
+ * only moves the simulation clock, so a day of operation takes seconds. With cameras sharing a seeded random
+ * generator the run is fully deterministic. The intersection and its lights have to be built with the
+ * {@link #environment()} of the simulation, nothing global is changed, so simulations can run side by side.
+ */
+public class Simulation {
+    private final SimulationClock clock;
+    private final IntersectionEnvironment environment;
+
+    public Simulation(SimulationClock clock) {
+        this.clock = clock;
+        this.environment = IntersectionEnvironment.simulated(clock);
+    }
+
+    public IntersectionEnvironment environment() {
+        return environment;
+    }
+
+    public SimulationReport run(Intersection intersection, Duration duration) throws InterruptedException {
+        if (intersection.getEnvironment().clock() != clock) {
+            throw new IllegalArgumentException("Intersection " + intersection.getId() + " does not run on the simulation clock");
+        }
+        long wallStart = System.nanoTime();
+        long end = clock.millis() + duration.toMillis();
+        long decisions = 0;
+        long greenSeconds = 0;
+        Map<String, Long> greenSecondsPerRoute = new LinkedHashMap<>();
+        intersection.getRoutes().forEach(route -> greenSecondsPerRoute.put(route.getId(), 0L));
+        while (clock.millis() < end) {
+            int greenTime = intersection.updateState();
+            if (greenTime < 0) {
+                throw new IllegalStateException("Working mode " + intersection.getWorkingMode() + " is not supported");
+            }
+            decisions++;
+            long waitStart = clock.millis();
+            awaitGreenEnd(intersection, greenTime);
+            long served = (Math.min(clock.millis(), end) - Math.min(waitStart, end)) / 1000;
+            greenSeconds += served;
+            if (intersection.getCurrentCycle() != null) {
+                for (Route route : intersection.getCurrentCycle().getRoutes()) {
+                    greenSecondsPerRoute.merge(route.getId(), served, Long::sum);
+                }
+            }
+        }
+        intersection.defaultSignal();
+        return new SimulationReport(intersection.getName(), intersection.getWorkingMode(), duration,
+                decisions, greenSeconds, (System.nanoTime() - wallStart) / 1_000_000, greenSecondsPerRoute);
+    }
+
+    // a command submitted during green ends it early, as in the runtime
+    private void awaitGreenEnd(Intersection intersection, int greenTime) {
+        CompletableFuture<Void> command = intersection.getCommands().arrival();
+        if (intersection.getCommands().isEmpty()) {
+            clock.await(CompletableFuture.anyOf(command, clock.schedule(greenTime * 1000L, () -> {
+            })));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.coffee.simulation;
+
+import org.coffee.component.attribute.WorkingMode;
+
+import java.time.Duration;
+import java.util.Map;
+
+public record SimulationReport(
+        String intersection,
+        WorkingMode workingMode,
+        Duration simulatedTime,
+        long decisions,
+        long greenSeconds,
+        long wallTimeMillis,
+        Map<String, Long> greenSecondsPerRoute
+) {
+
+    public long lostSeconds() {
+        return simulatedTime.toSeconds() - greenSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "Simulation of " + intersection + " in mode " + workingMode + ": " + simulatedTime.toHours() + " h simulated in "
+                + wallTimeMillis + " ms, " + decisions + " decisions, green " + greenSeconds + " s, lost " + lostSeconds() + " s, "
+                + "green per route " + greenSecondsPerRoute;
+    }
+}
@@ -0,0 +1,21 @@
+package org.coffee.utils;
+
+import org.coffee.component.intersection.Intersection;
+import org.coffee.component.lane.LaneInbound;
+import org.coffee.component.lane.LaneOutbound;
+
+import java.util.List;
+
+/**
+ * Intersections placed in a grid of {@code rows} x {@code columns}, stored row by row. Neighbours are connected
+ * by links leading from an outbound lane of one intersection to an inbound lane of the other.
+ */
+public record CityGrid(int rows, int columns, List<Intersection> intersections, List<Link> links) {
+
+    public Intersection intersection(int row, int column) {
+        return intersections.get(row * columns + column);
+    }
+
+    public record Link(Intersection from, LaneOutbound exit, Intersection to, LaneInbound entry) {
+    }
+}
@@ -7,12 +7,15 @@ import org.coffee.component.light.ConditionalArrowTrafficLight;
 import org.coffee.component.sensor.Camera;
 import org.coffee.component.cycle.Cycle;
 import org.coffee.component.intersection.Intersection;
+import org.coffee.component.intersection.IntersectionEnvironment;
 import org.coffee.component.lane.LaneInbound;
 import org.coffee.component.lane.LaneOutbound;
 import org.coffee.component.route.Route;
 import org.coffee.component.light.RoadTrafficLight;
 
 import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
 
 import static java.util.Collections.singletonList;
 import static org.coffee.component.attribute.Location.EAST;
@@ -26,7 +29,11 @@ import static org.coffee.component.attribute.RouteType.NORMAL;
 public class IntersectionComponentsCreator {
 
     public static Intersection createSimpleIntersection() throws IncorrectRoutesException {
+        return createSimpleIntersection(IntersectionEnvironment.realTime());
+    }
 
+    public static Intersection createSimpleIntersection(IntersectionEnvironment environment) throws IncorrectRoutesException {
+        var clock = environment.clock();
         var cam1 = new Camera("Cam1", "Cam1");
         var cam2 = new Camera("Cam2", "Cam2");
         var cam3 = new Camera("Cam3", "Cam3");
@@ -42,35 +49,58 @@ public class IntersectionComponentsCreator {
         var lo3 = new LaneOutbound("L6", "L6", EAST, false);
         var lo4 = new LaneOutbound("L8", "L8", WEST, false);
 
-        var tl1 = new RoadTrafficLight("TL1", "TL1");
-        var tl2 = new RoadTrafficLight("TL2", "TL2");
-        var tl3 = new RoadTrafficLight("TL3", "TL3");
-        var tl4 = new RoadTrafficLight("TL4", "TL4");
+        var tl1 = new RoadTrafficLight("TL1", "TL1", clock);
+        var tl2 = new RoadTrafficLight("TL2", "TL2", clock);
+        var tl3 = new RoadTrafficLight("TL3", "TL3", clock);
+        var tl4 = new RoadTrafficLight("TL4", "TL4", clock);
 
         var r1 = new Route("R1", NORMAL, li1, List.of(lo2, lo3, lo4), List.of(tl1));
         var r2 = new Route("R2", NORMAL, li2, List.of(lo1, lo3, lo4), List.of(tl2));
         var r3 = new Route("R3", NORMAL, li3, List.of(lo1, lo2, lo4), List.of(tl3));
         var r4 = new Route("R4", NORMAL, li4, List.of(lo1, lo2, lo3), List.of(tl4));
 
-        var c1 = new Cycle("C1", List.of(r1, r2), 3);
-        var c2 = new Cycle("C2", List.of(r3, r4), 5);
+        var c1 = new Cycle("C1", List.of(r1, r2), 3, clock, environment.dispatcher());
+        var c2 = new Cycle("C2", List.of(r3, r4), 5, clock, environment.dispatcher());
 
         return new Intersection(
                 "I1",
                 "I1",
                 List.of(r1, r2, r3, r4),
                 List.of(c1, c2),
-                WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE
+                WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE,
+                environment
         );
     }
 
     public static Intersection createComplexIntersection() throws IncorrectRoutesException {
-        var cam1 = new Camera("Cam1", "Cam1");
-        var cam2 = new Camera("Cam2", "Cam2");
-        var cam3 = new Camera("Cam3", "Cam3");
-        var cam4 = new Camera("Cam4", "Cam4");
-        var cam5 = new Camera("Cam5", "Cam5");
-        var cam6 = new Camera("Cam6", "Cam6");
+        return createComplexIntersection(WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE, new Random());
+    }
+
+    public static Intersection createComplexIntersection(WorkingMode workingMode, Random random) throws IncorrectRoutesException {
+        return createComplexIntersection(workingMode, random, IntersectionEnvironment.realTime());
+    }
+
+    public static Intersection createComplexIntersection(WorkingMode workingMode, Random random, IntersectionEnvironment environment) throws IncorrectRoutesException {
+        return createComplexIntersection(workingMode, (cameraId, laneId) -> new Camera(cameraId, cameraId, random), environment);
+    }
+
+    public static Intersection createComplexIntersection(WorkingMode workingMode, BiFunction<String, String, Camera> cameras) throws IncorrectRoutesException {
+        return createComplexIntersection(workingMode, cameras, IntersectionEnvironment.realTime());
+    }
+
+    /**
+     * Complex intersection with cameras created by the given function from camera id and id of its lane,
+     * e.g. to record or replay sensor traces, running in the given environment.
+     */
+    public static Intersection createComplexIntersection(WorkingMode workingMode, BiFunction<String, String, Camera> cameras,
+                                                         IntersectionEnvironment environment) throws IncorrectRoutesException {
+        var clock = environment.clock();
+        var cam1 = cameras.apply("Cam1", "Li1");
+        var cam2 = cameras.apply("Cam2", "Li2");
+        var cam3 = cameras.apply("Cam3", "Li3");
+        var cam4 = cameras.apply("Cam4", "Li4");
+        var cam5 = cameras.apply("Cam5", "Li5");
+        var cam6 = cameras.apply("Cam6", "Li6");
 
         var li1 = new LaneInbound("Li1", "Li1", EAST, cam1);
         var li2 = new LaneInbound("Li2", "Li2", WEST, cam2);
@@ -86,14 +116,14 @@ public class IntersectionComponentsCreator {
         var lo5 = new LaneOutbound("Lo5", "Lo5", SOUTH, false);
         var lo6 = new LaneOutbound("Lo8", "Lo8", SOUTH, true);
 
-        var tl1 = new RoadTrafficLight("TL1", "TL1");
-        var tl2 = new RoadTrafficLight("TL2", "TL2");
-        var tl3 = new RoadTrafficLight("TL3", "TL3");
-        var tl4 = new RoadTrafficLight("TL4", "TL4");
-        var tl6 = new RoadTrafficLight("TL6", "TL6");
-        var tl5 = new ConditionalArrowTrafficLight("TL5", "TL5");
-        var tl7 = new RoadTrafficLight("TL7", "TL7");
-        var tl8 = new ConditionalArrowTrafficLight("TL8", "TL8");
+        var tl1 = new RoadTrafficLight("TL1", "TL1", clock);
+        var tl2 = new RoadTrafficLight("TL2", "TL2", clock);
+        var tl3 = new RoadTrafficLight("TL3", "TL3", clock);
+        var tl4 = new RoadTrafficLight("TL4", "TL4", clock);
+        var tl6 = new RoadTrafficLight("TL6", "TL6", clock);
+        var tl5 = new ConditionalArrowTrafficLight("TL5", "TL5", clock);
+        var tl7 = new RoadTrafficLight("TL7", "TL7", clock);
+        var tl8 = new ConditionalArrowTrafficLight("TL8", "TL8", clock);
 
         var pl1 = new PedestrianLane("PL1", "PL1", SOUTH, List.of(lo5, lo6));
         var pl2 = new PedestrianLane("PL2", "PL2", SOUTH, List.of(li5, li6));
@@ -113,16 +143,17 @@ public class IntersectionComponentsCreator {
         var r7 = new Route("R7", ISOLATED, li6, List.of(lo4, lo1), singletonList(tl7), singletonList(pl6));
         var r8 = new Route("R8", CONDITIONAL, li2, singletonList(lo6), singletonList(tl8), List.of(pl8, pl1));
 
-        var c1 = new Cycle("C1", List.of(r1, r2), 3);
-        var c2 = new Cycle("C2", List.of(r3, r4, r5), 4);
-        var c3 = new Cycle("C3", List.of(r6, r7, r8), 4);
+        var c1 = new Cycle("C1", List.of(r1, r2), 3, clock, environment.dispatcher());
+        var c2 = new Cycle("C2", List.of(r3, r4, r5), 4, clock, environment.dispatcher());
+        var c3 = new Cycle("C3", List.of(r6, r7, r8), 4, clock, environment.dispatcher());
 
         return new Intersection(
                 "I1",
                 "I1",
                 List.of(r1, r2, r3, r4, r5, r6, r7, r8),
                 List.of(c1, c2, c3),
-                WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE
+                workingMode,
+                environment
         );
     }
 }
@@ -0,0 +1,274 @@
+package org.coffee.utils;
+
+import org.coffee.component.attribute.Location;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.intersection.Intersection;
+import org.coffee.component.intersection.IntersectionEnvironment;
+import org.coffee.component.lane.Lane;
+import org.coffee.component.lane.LaneInbound;
+import org.coffee.component.lane.LaneOutbound;
+import org.coffee.component.lane.PedestrianLane;
+import org.coffee.component.light.ConditionalArrowTrafficLight;
+import org.coffee.component.light.RoadTrafficLight;
+import org.coffee.component.light.TrafficLight;
+import org.coffee.component.route.Route;
+import org.coffee.component.sensor.Camera;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.coffee.component.attribute.Location.EAST;
+import static org.coffee.component.attribute.Location.NORTH;
+import static org.coffee.component.attribute.Location.SOUTH;
+import static org.coffee.component.attribute.Location.WEST;
+import static org.coffee.component.attribute.RouteType.CONDITIONAL;
+import static org.coffee.component.attribute.RouteType.ISOLATED;
+import static org.coffee.component.attribute.RouteType.NORMAL;
+
+/**
+ * Generates intersections of any size from a seed, the same seed always gives the same layout and the same traffic.
+ * Every inbound lane is one route. Lanes of a leg share destinations from the rightmost lane turning right to the
+ * leftmost lane turning left, conditional arrows are placed on the rightmost lane and isolated routes on the leftmost one.
+ * Cycles are generated from the routes.
+ */
+public class IntersectionGenerator {
+    private static final List<Location> LEGS = List.of(NORTH, EAST, SOUTH, WEST);
+
+    private final Random random;
+    private final IntersectionEnvironment environment;
+
+    public IntersectionGenerator(long seed) {
+        this(seed, IntersectionEnvironment.realTime());
+    }
+
+    public IntersectionGenerator(long seed, IntersectionEnvironment environment) {
+        this.random = new Random(seed);
+        this.environment = environment;
+    }
+
+    public Intersection generate(String id, IntersectionSpec spec) throws IncorrectRoutesException {
+        return layout(id, spec).toIntersection(spec);
+    }
+
+    public List<Route> generateRoutes(String id, IntersectionSpec spec) {
+        return layout(id, spec).routes;
+    }
+
+    public CityGrid generateGrid(int rows, int columns, IntersectionSpec spec) throws IncorrectRoutesException {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("Grid must have at least one row and one column");
+        }
+        List<Layout> layouts = new ArrayList<>(rows * columns);
+        List<Intersection> intersections = new ArrayList<>(rows * columns);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                Layout layout = layout("G" + row + "-" + column, spec);
+                layouts.add(layout);
+                intersections.add(layout.toIntersection(spec));
+            }
+        }
+
+        List<CityGrid.Link> links = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int index = row * columns + column;
+                if (column + 1 < columns) {
+                    connect(links, layouts, intersections, index, index + 1, EAST);
+                }
+                if (row + 1 < rows) {
+                    connect(links, layouts, intersections, index, index + columns, SOUTH);
+                }
+            }
+        }
+        return new CityGrid(rows, columns, intersections, links);
+    }
+
+    // Links both ways between neighbours, second intersection lies in the given direction from the first one
+    private static void connect(List<CityGrid.Link> links, List<Layout> layouts, List<Intersection> intersections,
+                                int first, int second, Location direction) {
+        link(links, layouts.get(first), intersections.get(first), layouts.get(second), intersections.get(second), direction);
+        link(links, layouts.get(second), intersections.get(second), layouts.get(first), intersections.get(first), opposite(direction));
+    }
+
+    private static void link(List<CityGrid.Link> links, Layout from, Intersection fromIntersection,
+                             Layout to, Intersection toIntersection, Location direction) {
+        LaneOutbound exit = from.outbound.get(direction);
+        List<LaneInbound> entries = to.inbound.get(opposite(direction));
+        if (exit == null || entries == null) {
+            return;
+        }
+        entries.forEach(entry -> links.add(new CityGrid.Link(fromIntersection, exit, toIntersection, entry)));
+    }
+
+    private Layout layout(String id, IntersectionSpec spec) {
+        Layout layout = new Layout(id, environment);
+        List<Location> legs = chooseLegs(spec.legs());
+        Map<Location, Boolean> crossings = new EnumMap<>(Location.class);
+        Map<Location, Boolean> arrows = new EnumMap<>(Location.class);
+        Map<Location, Boolean> isolated = new EnumMap<>(Location.class);
+        for (Location leg : legs) {
+            crossings.put(leg, random.nextDouble() < spec.pedestrianCrossingRatio());
+            arrows.put(leg, legs.contains(right(leg)) && random.nextDouble() < spec.conditionalArrowRatio());
+            isolated.put(leg, random.nextDouble() < spec.isolatedRouteRatio());
+        }
+
+        for (Location leg : legs) {
+            layout.outbound.put(leg, new LaneOutbound(layout.next("Lo"), layout.last(), leg, arrows.getOrDefault(left(leg), false)));
+            List<LaneInbound> lanes = new ArrayList<>(spec.lanesPerLeg());
+            for (int lane = 0; lane < spec.lanesPerLeg(); lane++) {
+                var camera = new Camera(layout.next("Cam"), layout.last(), random);
+                lanes.add(new LaneInbound(layout.next("Li"), layout.last(), leg, camera));
+            }
+            layout.inbound.put(leg, lanes);
+        }
+        for (Location leg : legs) {
+            if (crossings.get(leg)) {
+                layout.inboundCrossings.put(leg, new PedestrianLane(layout.next("PL"), layout.last(), leg, new ArrayList<Lane>(layout.inbound.get(leg))));
+                layout.outboundCrossings.put(leg, new PedestrianLane(layout.next("PL"), layout.last(), leg, singletonList(layout.outbound.get(leg))));
+            }
+        }
+
+        for (Location leg : legs) {
+            List<Location> destinations = destinations(leg, legs);
+            List<LaneInbound> lanes = layout.inbound.get(leg);
+            for (int lane = 0; lane < lanes.size(); lane++) {
+                boolean isolatedRoute = isolated.get(leg) && lane == lanes.size() - 1;
+                layout.addRoute(lanes.get(lane), destinationsOf(destinations, lane, lanes.size()), isolatedRoute);
+            }
+            if (arrows.get(leg)) {
+                layout.addConditionalRoute(lanes.getFirst(), right(leg));
+            }
+        }
+
+        if (spec.invalid()) {
+            layout.breakRandomRoute(random);
+        }
+        return layout;
+    }
+
+    private List<Location> chooseLegs(int count) {
+        List<Location> legs = new ArrayList<>(LEGS);
+        while (legs.size() > count) {
+            legs.remove(random.nextInt(legs.size()));
+        }
+        return legs;
+    }
+
+    // Destinations available from a leg, from right turn to left turn
+    private static List<Location> destinations(Location leg, List<Location> legs) {
+        return List.of(right(leg), opposite(leg), left(leg)).stream()
+                .filter(legs::contains)
+                .toList();
+    }
+
+    // Splits destinations between lanes, lane 0 is the rightmost one. With more lanes than destinations lanes are shared.
+    private static List<Location> destinationsOf(List<Location> destinations, int lane, int lanes) {
+        int from = lane * destinations.size() / lanes;
+        int to = Math.max((lane + 1) * destinations.size() / lanes, from + 1);
+        return destinations.subList(from, to);
+    }
+
+    private static Location opposite(Location location) {
+        return switch (location) {
+            case NORTH -> SOUTH;
+            case SOUTH -> NORTH;
+            case EAST -> WEST;
+            case WEST -> EAST;
+        };
+    }
+
+    // Location reached by turning right when coming from the given location
+    private static Location right(Location location) {
+        return switch (location) {
+            case NORTH -> WEST;
+            case WEST -> SOUTH;
+            case SOUTH -> EAST;
+            case EAST -> NORTH;
+        };
+    }
+
+    private static Location left(Location location) {
+        return opposite(right(location));
+    }
+
+    private static class Layout {
+        private final String id;
+        private final Map<Location, LaneOutbound> outbound = new EnumMap<>(Location.class);
+        private final Map<Location, List<LaneInbound>> inbound = new EnumMap<>(Location.class);
+        private final Map<Location, PedestrianLane> inboundCrossings = new EnumMap<>(Location.class);
+        private final Map<Location, PedestrianLane> outboundCrossings = new EnumMap<>(Location.class);
+        private final List<Route> routes = new ArrayList<>();
+        private final Map<String, Integer> counters = new HashMap<>();
+        private final IntersectionEnvironment environment;
+        private String last;
+
+        private Layout(String id, IntersectionEnvironment environment) {
+            this.id = id;
+            this.environment = environment;
+        }
+
+        private String next(String prefix) {
+            last = id + "-" + prefix + counters.merge(prefix, 1, Integer::sum);
+            return last;
+        }
+
+        private String last() {
+            return last;
+        }
+
+        // Normal route stops pedestrians it turns into, isolated route keeps them clear of its own lanes
+        private void addRoute(LaneInbound lane, List<Location> destinations, boolean isolatedRoute) {
+            List<LaneOutbound> outboundLanes = destinations.stream().map(outbound::get).toList();
+            List<PedestrianLane> pedestrianLanes = new ArrayList<>();
+            for (Location destination : destinations) {
+                if (isolatedRoute) {
+                    addIfPresent(pedestrianLanes, inboundCrossings.get(destination));
+                } else if (destination != opposite(lane.getLocation())) {
+                    addIfPresent(pedestrianLanes, inboundCrossings.get(destination));
+                    addIfPresent(pedestrianLanes, outboundCrossings.get(destination));
+                }
+            }
+            TrafficLight light = new RoadTrafficLight(next("TL"), last(), environment.clock());
+            routes.add(new Route(next("R"), isolatedRoute ? ISOLATED : NORMAL, lane, outboundLanes, singletonList(light), pedestrianLanes));
+        }
+
+        private void addConditionalRoute(LaneInbound lane, Location destination) {
+            List<PedestrianLane> pedestrianLanes = new ArrayList<>();
+            addIfPresent(pedestrianLanes, inboundCrossings.get(destination));
+            addIfPresent(pedestrianLanes, outboundCrossings.get(destination));
+            TrafficLight light = new ConditionalArrowTrafficLight(next("TL"), last(), environment.clock());
+            routes.add(new Route(next("R"), CONDITIONAL, lane, singletonList(outbound.get(destination)), singletonList(light), pedestrianLanes));
+        }
+
+        private void breakRandomRoute(Random random) {
+            int index = random.nextInt(routes.size());
+            Route route = routes.get(index);
+            LaneInbound lane = route.getInboundLane();
+            Route broken = switch (random.nextInt(3)) {
+                case 0 -> new Route(route.getId(), NORMAL, lane, route.getOutboundLanes(), route.getTrafficLights(),
+                        singletonList(new PedestrianLane(next("PL"), last(), lane.getLocation(), singletonList(lane))));
+                case 1 -> new Route(route.getId(), route.getType(), lane, route.getOutboundLanes(), emptyList(), route.getPedestrianLanes());
+                default -> new Route(route.getId(), CONDITIONAL, lane,
+                        singletonList(new LaneOutbound(next("Lo"), last(), opposite(lane.getLocation()), false)),
+                        singletonList(new ConditionalArrowTrafficLight(next("TL"), last(), environment.clock())));
+            };
+            routes.set(index, broken);
+        }
+
+        private Intersection toIntersection(IntersectionSpec spec) throws IncorrectRoutesException {
+            return new Intersection(id, id, routes, spec.workingMode(), environment);
+        }
+
+        private static void addIfPresent(List<PedestrianLane> pedestrianLanes, PedestrianLane pedestrianLane) {
+            if (pedestrianLane != null) {
+                pedestrianLanes.add(pedestrianLane);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.coffee.utils;
+
+import org.coffee.component.attribute.WorkingMode;
+
+/**
+ * Layout of a generated intersection.
+ *
+ * @param legs                    number of roads meeting at the intersection, from 2 to 4
+ * @param lanesPerLeg             inbound lanes on every leg, every lane becomes one route
+ * @param pedestrianCrossingRatio probability that a leg has a pedestrian crossing
+ * @param conditionalArrowRatio   probability that the rightmost lane of a leg has a conditional arrow
+ * @param isolatedRouteRatio      probability that the leftmost lane of a leg is an isolated route
+ * @param workingMode             working mode of the generated intersection
+ * @param invalid                 when set, one route is deliberately broken so that validation fails
+ */
+public record IntersectionSpec(
+        int legs,
+        int lanesPerLeg,
+        double pedestrianCrossingRatio,
+        double conditionalArrowRatio,
+        double isolatedRouteRatio,
+        WorkingMode workingMode,
+        boolean invalid
+) {
+
+    public IntersectionSpec {
+        if (legs < 2 || legs > 4) {
+            throw new IllegalArgumentException("Intersection must have from 2 to 4 legs, got " + legs);
+        }
+        if (lanesPerLeg < 1) {
+            throw new IllegalArgumentException("Every leg must have at least one lane, got " + lanesPerLeg);
+        }
+        requireRatio(pedestrianCrossingRatio);
+        requireRatio(conditionalArrowRatio);
+        requireRatio(isolatedRouteRatio);
+    }
+
+    public static IntersectionSpec of(int legs, int lanesPerLeg, WorkingMode workingMode) {
+        return new IntersectionSpec(legs, lanesPerLeg, 0.5, 0.5, 0.25, workingMode, false);
+    }
+
+    public IntersectionSpec asInvalid() {
+        return new IntersectionSpec(legs, lanesPerLeg, pedestrianCrossingRatio, conditionalArrowRatio, isolatedRouteRatio, workingMode, true);
+    }
+
+    private static void requireRatio(double ratio) {
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("Ratio must be between 0 and 1, got " + ratio);
+        }
+    }
+}
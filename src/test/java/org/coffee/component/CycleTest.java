@@ -1,6 +1,8 @@
 package org.coffee.component;
 
 import org.coffee.component.cycle.Cycle;
+import org.coffee.component.light.LightCommand;
+import org.coffee.component.light.TrafficLight;
 import org.coffee.component.route.Route;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,8 +10,11 @@ import org.mockito.Mock;
 
 import java.util.List;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.coffee.component.attribute.RouteType.CONDITIONAL;
 import static org.coffee.component.attribute.RouteType.NORMAL;
+import static org.coffee.component.light.LightCommand.Action.ALLOW;
+import static org.coffee.component.light.LightCommand.Action.STOP;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -27,11 +32,25 @@ class CycleTest {
     @Mock
     private Route route2;
 
+    @Mock
+    private TrafficLight light1;
+
+    @Mock
+    private TrafficLight light2;
+
     private Cycle sut;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
+        when(light1.allowTraffic()).thenReturn(completedFuture(null));
+        when(light2.allowTraffic()).thenReturn(completedFuture(null));
+        when(light1.stopTraffic()).thenReturn(completedFuture(null));
+        when(light2.stopTraffic()).thenReturn(completedFuture(null));
+        when(route1.getAllowCommands()).thenReturn(List.of(new LightCommand(light1, ALLOW)));
+        when(route2.getAllowCommands()).thenReturn(List.of(new LightCommand(light2, ALLOW)));
+        when(route1.getStopCommands()).thenReturn(List.of(new LightCommand(light1, STOP)));
+        when(route2.getStopCommands()).thenReturn(List.of(new LightCommand(light2, STOP)));
         routes = List.of(route1, route2);
         sut = new Cycle("id", routes, 10);
     }
@@ -43,8 +62,8 @@ class CycleTest {
 
         sut.allowTraffic();
 
-        verify(route1, times(1)).allowTraffic();
-        verify(route2, times(1)).allowTraffic();
+        verify(light1, times(1)).allowTraffic();
+        verify(light2, times(1)).allowTraffic();
     }
 
     @Test
@@ -56,17 +75,17 @@ class CycleTest {
 
         sut.allowTraffic();
 
-        verify(route1, times(1)).allowTraffic();
-        verify(route2, times(1)).stopTraffic();
-        verify(route2, times(0)).allowTraffic();
+        verify(light1, times(1)).allowTraffic();
+        verify(light2, times(1)).stopTraffic();
+        verify(light2, times(0)).allowTraffic();
     }
 
     @Test
     void shouldStopTraffic() {
         sut.stopTraffic();
 
-        verify(route1, times(1)).stopTraffic();
-        verify(route2, times(1)).stopTraffic();
+        verify(light1, times(1)).stopTraffic();
+        verify(light2, times(1)).stopTraffic();
     }
 
     @Test
@@ -99,8 +118,8 @@ class CycleTest {
 
         sut.allowTrafficForConditionalRoutes();
 
-        verify(route1, times(1)).allowTraffic();
-        verify(route2, times(0)).allowTraffic();
+        verify(light1, times(1)).allowTraffic();
+        verify(light2, times(0)).allowTraffic();
     }
 
     @Test
@@ -113,8 +132,8 @@ class CycleTest {
 
         sut.stopTrafficForConditionalRoutes();
 
-        verify(route1, times(1)).stopTraffic();
-        verify(route2, times(0)).stopTraffic();
+        verify(light1, times(1)).stopTraffic();
+        verify(light2, times(0)).stopTraffic();
     }
 
     @Test
@@ -1,10 +1,12 @@
 package org.coffee.component;
 
 import org.coffee.component.attribute.WorkingMode;
-
+import org.coffee.component.clock.Clock;
+import org.coffee.component.clock.SimulationClock;
 import org.coffee.component.cycle.Cycle;
 import org.coffee.component.cycle.IncorrectRoutesException;
 import org.coffee.component.intersection.Intersection;
+import org.coffee.component.intersection.IntersectionEnvironment;
 import org.coffee.component.lane.LaneInbound;
 import org.coffee.component.lane.LaneOutbound;
 import org.coffee.component.light.RoadTrafficLight;
@@ -17,6 +19,7 @@ import org.mockito.Mock;
 
 import java.util.List;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.coffee.component.attribute.Location.EAST;
 import static org.coffee.component.attribute.Location.NORTH;
@@ -26,6 +29,11 @@ import static org.coffee.component.attribute.RouteType.CONDITIONAL;
 import static org.coffee.component.attribute.RouteType.ISOLATED;
 import static org.coffee.component.attribute.RouteType.NORMAL;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
 
@@ -36,6 +44,7 @@ class IntersectionTest {
     @Mock Camera camera3;
     @Mock Camera camera4;
 
+    private IntersectionEnvironment environment = IntersectionEnvironment.realTime();
     private Intersection sut;
 
     @BeforeEach
@@ -163,38 +172,139 @@ class IntersectionTest {
         assertEquals(sut.getCurrentCycle(), cycle3);
     }
 
+    @Test
+    void shouldStartCycleAsSoonAsCameraDetectsTraffic() throws IncorrectRoutesException, InterruptedException {
+        var clock = new SimulationClock();
+        environment = IntersectionEnvironment.simulated(clock);
+        var north = new DetectingCamera(clock);
+        var south = new DetectingCamera(clock);
+        Route route1 = new Route("id", NORMAL, new LaneInbound("id", "name", NORTH, north),
+                singletonList(new LaneOutbound("id", "name", SOUTH, true)), singletonList(new RoadTrafficLight("id", "name", clock)));
+        Route route2 = new Route("id2", ISOLATED, new LaneInbound("id", "name", SOUTH, south),
+                singletonList(new LaneOutbound("id", "name", WEST, true)), singletonList(new RoadTrafficLight("id", "name", clock)));
+        Cycle cycle1 = new Cycle("id", singletonList(route1), 3);
+        Cycle cycle2 = new Cycle("id", singletonList(route2), 3);
+        sut = new Intersection("id", "name", List.of(route1, route2), List.of(cycle1, cycle2),
+                WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE, environment);
+        north.cars = 1;
+        sut.updateState();
+        north.cars = 0;
+
+        long arrival = clock.millis() + 300;
+        clock.schedule(300, () -> south.arrive(5));
+        sut.updateState();
+
+        assertEquals(cycle2, sut.getCurrentCycle());
+        assertEquals(arrival, south.firstReadWithCars);
+    }
+
+    @Test
+    void shouldServeRoutesWithHighestPressureInIntelligentMode() throws IncorrectRoutesException, InterruptedException {
+        Route route1 = getSimpleRoute();
+        Route route2 = getGradeSeparatedRoute();
+
+        sut = new Intersection("id", "name", List.of(route1, route2), emptyList(), WorkingMode.INTELLIGENT);
+
+        when(camera1.getCars()).thenReturn(10);
+        when(camera2.getCars()).thenReturn(2);
+
+        int time = sut.updateState();
+        assertEquals(25, time);
+        assertEquals(List.of(route1), sut.getCurrentCycle().getRoutes());
+        assertTrue(sut.getCycleQueue().isEmpty());
+    }
+
+    @Test
+    void shouldReadEveryCameraOncePerDecision() throws IncorrectRoutesException, InterruptedException {
+        environment = IntersectionEnvironment.simulated(new SimulationClock());
+        Route route1 = getSimpleRoute();
+        Route route2 = getGradeSeparatedRoute();
+        for (WorkingMode workingMode : List.of(WorkingMode.CYCLES_VARIABLE_TIME, WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE)) {
+            clearInvocations(camera1, camera2);
+            when(camera1.getCars()).thenReturn(4);
+            when(camera2.getCars()).thenReturn(2);
+            sut = new Intersection("id", "name", List.of(route1, route2),
+                    List.of(new Cycle("id", singletonList(route1), 3), new Cycle("id", singletonList(route2), 3)), workingMode, environment);
+
+            sut.updateState();
+
+            verify(camera1, times(1)).getCars();
+            verify(camera2, times(1)).getCars();
+        }
+    }
+
+    @Test
+    void shouldKeepConditionalArrowDarkInIntelligentMode() throws IncorrectRoutesException, InterruptedException {
+        environment = IntersectionEnvironment.simulated(new SimulationClock());
+        Route route1 = getSimpleRoute();
+        Route arrow = getConditionalRoute();
+        sut = new Intersection("id", "name", List.of(route1, arrow), emptyList(), WorkingMode.INTELLIGENT, environment);
+
+        when(camera1.getCars()).thenReturn(1);
+        when(camera3.getCars()).thenReturn(10);
+        sut.updateState();
+        sut.updateState();
+
+        assertEquals(List.of(route1), sut.getCurrentCycle().getRoutes());
+        assertFalse(arrow.isAllowingTraffic());
+    }
+
+    private static class DetectingCamera extends Camera {
+        private final Clock clock;
+        private int cars;
+        private long firstReadWithCars = -1;
+
+        private DetectingCamera(Clock clock) {
+            super("id", "name");
+            this.clock = clock;
+        }
+
+        private void arrive(int cars) {
+            this.cars = cars;
+            detected();
+        }
+
+        @Override
+        public int getCars() {
+            if (cars > 0 && firstReadWithCars < 0) {
+                firstReadWithCars = clock.millis();
+            }
+            return cars;
+        }
+    }
+
     private Route getSimpleRoute() {
         LaneInbound inboundLane = new LaneInbound("id", "name", NORTH, camera1);
         LaneOutbound outboundLane = new LaneOutbound("id", "name", SOUTH, true);
-        TrafficLight trafficLight = new RoadTrafficLight("id", "name");
+        TrafficLight trafficLight = new RoadTrafficLight("id", "name", environment.clock());
         return new Route("id", NORMAL, inboundLane, singletonList(outboundLane), singletonList(trafficLight));
     }
 
     private Route getGradeSeparatedRoute() {
         LaneInbound inboundLane = new LaneInbound("id", "name", SOUTH, camera2);
         LaneOutbound outboundLane = new LaneOutbound("id", "name", WEST, true);
-        TrafficLight trafficLight = new RoadTrafficLight("id", "name");
+        TrafficLight trafficLight = new RoadTrafficLight("id", "name", environment.clock());
         return new Route("id2", ISOLATED, inboundLane, singletonList(outboundLane), singletonList(trafficLight));
     }
 
     private Route getConditionalRoute() {
         LaneInbound inboundLane = new LaneInbound("id", "name", SOUTH, camera3);
         LaneOutbound outboundLane = new LaneOutbound("id", "name", EAST, true);
-        TrafficLight trafficLight = new RoadTrafficLight("id", "name");
+        TrafficLight trafficLight = new RoadTrafficLight("id", "name", environment.clock());
         return new Route("id2", CONDITIONAL, inboundLane, singletonList(outboundLane), singletonList(trafficLight));
     }
 
     private Route getSimpleRoute2() {
         LaneInbound inboundLane = new LaneInbound("id", "name", SOUTH, camera4);
         LaneOutbound outboundLane = new LaneOutbound("id", "name", NORTH, true);
-        TrafficLight trafficLight = new RoadTrafficLight("id", "name");
+        TrafficLight trafficLight = new RoadTrafficLight("id", "name", environment.clock());
         return new Route("id2", NORMAL, inboundLane, singletonList(outboundLane), singletonList(trafficLight));
     }
 
     private Route getSimpleRoute3() {
         LaneInbound inboundLane = new LaneInbound("id", "name", SOUTH, camera3);
         LaneOutbound outboundLane = new LaneOutbound("id", "name", EAST, true);
-        TrafficLight trafficLight = new RoadTrafficLight("id", "name");
+        TrafficLight trafficLight = new RoadTrafficLight("id", "name", environment.clock());
         return new Route("id3", NORMAL, inboundLane, singletonList(outboundLane), singletonList(trafficLight));
     }
 }
\ No newline at end of file
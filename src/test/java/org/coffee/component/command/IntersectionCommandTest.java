@@ -0,0 +1,159 @@
+package org.coffee.component.command;
+
+import org.coffee.component.attribute.ControlMode;
+import org.coffee.component.attribute.RouteType;
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.cycle.Cycle;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.intersection.Intersection;
+import org.coffee.component.route.Route;
+import org.coffee.simulation.Simulation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntersectionCommandTest {
+
+    private SimulationClock clock;
+    private Simulation simulation;
+    private Intersection sut;
+
+    @BeforeEach
+    void setUp() throws IncorrectRoutesException {
+        clock = new SimulationClock();
+        simulation = new Simulation(clock);
+        sut = createComplexIntersection(WorkingMode.CYCLES, new Random(5), simulation.environment());
+    }
+
+    @Test
+    void shouldHoldForcedCycleUntilResumed() throws InterruptedException {
+        sut.updateState();
+        assertEquals("C1", sut.getCurrentCycle().getId());
+
+        CompletableFuture<Void> acknowledged = sut.submit(new IntersectionCommand.ForceCycle("C3"));
+        assertFalse(acknowledged.isDone());
+        sut.updateState();
+        assertTrue(acknowledged.isDone());
+        assertEquals("C3", sut.getCurrentCycle().getId());
+        assertEquals(ControlMode.HOLD, sut.getControlMode());
+        sut.updateState();
+        assertEquals("C3", sut.getCurrentCycle().getId());
+
+        sut.submit(new IntersectionCommand.Resume());
+        sut.updateState();
+        assertEquals(ControlMode.AUTOMATIC, sut.getControlMode());
+        assertEquals("C2", sut.getCurrentCycle().getId());
+        sut.updateState();
+        assertEquals("C1", sut.getCurrentCycle().getId());
+    }
+
+    @Test
+    void shouldStopAllRoutesBeforeResumingAfterFlash() throws InterruptedException {
+        sut.updateState();
+        sut.submit(new IntersectionCommand.Flash());
+        sut.updateState();
+
+        assertEquals(ControlMode.FLASH, sut.getControlMode());
+        assertNull(sut.getCurrentCycle());
+        assertTrue(sut.getRoutes().stream().noneMatch(Route::isAllowingTraffic));
+        CompletableFuture<Void> hold = sut.submit(new IntersectionCommand.Hold());
+        sut.updateState();
+        assertTrue(hold.isCompletedExceptionally());
+        assertEquals(ControlMode.FLASH, sut.getControlMode());
+
+        sut.submit(new IntersectionCommand.Resume());
+        sut.updateState();
+        assertEquals("C2", sut.getCurrentCycle().getId());
+        assertTrue(sut.getCurrentCycle().getRoutes().stream()
+                .filter(route -> route.getType() != RouteType.CONDITIONAL)
+                .allMatch(Route::isAllowingTraffic));
+        assertEquals(0, sut.getSafetyVerifier().getViolations());
+    }
+
+    @Test
+    void shouldPreemptRouteAndResumeWithLongestWaitingCycle() throws InterruptedException {
+        sut.updateState();
+        Route preempting = sut.getCycles().get(1).getRoutes().get(0);
+
+        CompletableFuture<Void> acknowledged = sut.preempt(preempting);
+        sut.updateState();
+
+        assertTrue(acknowledged.isDone());
+        assertEquals(ControlMode.PREEMPTION, sut.getControlMode());
+        assertTrue(preempting.isAllowingTraffic());
+        for (Route route : sut.getRoutes()) {
+            if (!sut.getCollisionMatrix().isCompatible(route, preempting)) {
+                assertFalse(route.isAllowingTraffic());
+            }
+        }
+        assertEquals(1, sut.getMetrics().snapshot().timeToGreenMillis().count());
+        assertTrue(sut.getMetrics().snapshot().timeToGreenMillis().max() > 0);
+
+        sut.endPreemption();
+        sut.updateState();
+        assertEquals(ControlMode.AUTOMATIC, sut.getControlMode());
+        assertEquals("C2", sut.getCurrentCycle().getId());
+        CompletableFuture<Void> conditional = sut.preempt(sut.getRoutes().get(4));
+        sut.updateState();
+        assertTrue(conditional.isCompletedExceptionally());
+        assertEquals("C3", sut.getCurrentCycle().getId());
+        assertEquals(0, sut.getSafetyVerifier().getViolations());
+    }
+
+    @Test
+    void shouldSwitchLightsOfDroppedCycleToDefaultSignalOnFlashAfterReload() throws InterruptedException {
+        sut.updateState();
+        List<Route> dropped = sut.getCurrentCycle().getRoutes();
+        sut.submit(new IntersectionCommand.ReloadPlan(List.of(sut.getCycles().get(1), sut.getCycles().get(2))));
+        sut.submit(new IntersectionCommand.Flash());
+        sut.updateState();
+
+        assertEquals(ControlMode.FLASH, sut.getControlMode());
+        assertTrue(dropped.stream().noneMatch(Route::isAllowingTraffic));
+        assertTrue(sut.getRoutes().stream().noneMatch(Route::isAllowingTraffic));
+    }
+
+    @Test
+    void shouldRejectInvalidCommands() throws InterruptedException {
+        sut.updateState();
+        List<Route> routes = sut.getRoutes();
+        CompletableFuture<Void> unknownCycle = sut.submit(new IntersectionCommand.ForceCycle("C9"));
+        CompletableFuture<Void> conflictingPlan = sut.submit(new IntersectionCommand.ReloadPlan(
+                List.of(new Cycle("X1", List.of(routes.get(0), routes.get(2)), 4))));
+        CompletableFuture<Void> plan = sut.submit(new IntersectionCommand.ReloadPlan(
+                List.of(sut.getCycles().get(1), sut.getCycles().get(2))));
+        sut.updateState();
+
+        assertTrue(unknownCycle.isCompletedExceptionally());
+        assertTrue(conflictingPlan.isCompletedExceptionally());
+        assertTrue(plan.isDone() && !plan.isCompletedExceptionally());
+        assertEquals(List.of("C2", "C3"), sut.getCycles().stream().map(Cycle::getId).toList());
+        assertEquals("C2", sut.getCurrentCycle().getId());
+        sut.updateState();
+        assertEquals("C3", sut.getCurrentCycle().getId());
+        sut.updateState();
+        assertEquals("C2", sut.getCurrentCycle().getId());
+    }
+
+    @Test
+    void shouldTakeCommandDuringGreenWithoutWaitingForItsEnd() throws InterruptedException {
+        clock.schedule(10_500, () -> sut.submit(new IntersectionCommand.ForceCycle("C2")));
+        clock.schedule(40_500, () -> sut.submit(new IntersectionCommand.Flash()));
+
+        simulation.run(sut, Duration.ofMinutes(2));
+
+        assertTrue(sut.getMetrics().snapshot().commandLatencyMillis().max() < 1000);
+        assertEquals(2, sut.getMetrics().snapshot().commandLatencyMillis().count());
+    }
+}
@@ -0,0 +1,79 @@
+package org.coffee.component.cycle;
+
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.intersection.CollisionMatrix;
+import org.coffee.component.intersection.Intersection;
+import org.coffee.component.route.Route;
+import org.coffee.utils.IntersectionGenerator;
+import org.coffee.utils.IntersectionSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CyclePlanGeneratorTest {
+
+    private List<Route> routes;
+
+    @BeforeEach
+    void setUp() throws IncorrectRoutesException {
+        routes = createComplexIntersection().getRoutes();
+    }
+
+    @Test
+    void shouldCoverEveryRouteWithConflictFreeCycles() {
+        var collisionMatrix = new CollisionMatrix(routes);
+        List<Cycle> cycles = CyclePlanGenerator.generate(routes, 10);
+
+        routes.forEach(route -> assertTrue(cycles.stream().anyMatch(cycle -> cycle.getRoutes().contains(route)), route.getId()));
+        cycles.forEach(cycle -> assertTrue(collisionMatrix.isConflictFree(cycle.getRoutes()), cycle.getId()));
+        cycles.forEach(cycle -> assertEquals(10, cycle.getGreenTime()));
+    }
+
+    @Test
+    void shouldNotNeedMoreCyclesThanHandWrittenPlan() throws IncorrectRoutesException {
+        assertTrue(CyclePlanGenerator.generate(routes, 10).size() <= createComplexIntersection().getCycles().size());
+    }
+
+    @Test
+    void shouldAddRoutesToEveryCompatibleCycle() {
+        var collisionMatrix = new CollisionMatrix(routes);
+        List<Cycle> cycles = CyclePlanGenerator.generate(routes, 10);
+
+        cycles.forEach(cycle -> routes.stream()
+                .filter(route -> !cycle.getRoutes().contains(route))
+                .forEach(route -> assertFalse(collisionMatrix.canJoin(collisionMatrix.bitsetOf(cycle.getRoutes()), collisionMatrix.indexOf(route)),
+                        route.getId() + " could join " + cycle.getId())));
+    }
+
+    @Test
+    void shouldCreateIntersectionWithGeneratedCycles() throws IncorrectRoutesException {
+        var intersection = new Intersection("id", "name", routes, WorkingMode.CYCLES);
+
+        assertEquals(intersection.getCycles().size(), intersection.getCycleQueue().size());
+    }
+
+    @Test
+    void shouldGenerateValidCyclesForHundredsOfRoutes() {
+        List<Route> manyRoutes = new IntersectionGenerator(42).generateRoutes("I", IntersectionSpec.of(4, 64, WorkingMode.CYCLES));
+        var collisionMatrix = new CollisionMatrix(manyRoutes);
+
+        List<Cycle> cycles = CyclePlanGenerator.generate(collisionMatrix, 10);
+
+        assertTrue(manyRoutes.size() >= 256);
+        manyRoutes.forEach(route -> assertTrue(cycles.stream().anyMatch(cycle -> cycle.getRoutes().contains(route)), route.getId()));
+        cycles.forEach(cycle -> assertTrue(collisionMatrix.isConflictFree(cycle.getRoutes()), cycle.getId()));
+        cycles.forEach(cycle -> {
+            long[] set = collisionMatrix.bitsetOf(cycle.getRoutes());
+            manyRoutes.stream()
+                    .filter(route -> !cycle.getRoutes().contains(route))
+                    .forEach(route -> assertFalse(collisionMatrix.canJoin(set, collisionMatrix.indexOf(route)),
+                            route.getId() + " could join " + cycle.getId()));
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package org.coffee.component.event;
+
+import org.coffee.component.attribute.Color;
+import org.coffee.component.light.RoadTrafficLight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.coffee.component.attribute.Color.GREEN;
+import static org.coffee.component.attribute.Color.RED;
+import static org.coffee.component.attribute.Color.YELLOW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SignalEventLogTest {
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private SignalEventLog sut;
+
+    @AfterEach
+    void tearDown() {
+        sut.close();
+    }
+
+    @Test
+    void shouldDeliverEventsInOrder() {
+        sut = new SignalEventLog(16, this::record);
+        var light = new RoadTrafficLight("TL1", "TL1");
+        light.assignTo("I1");
+
+        sut.cycleStarted(1_000, "I1", "C1");
+        sut.lightSwitched(1_000, light, RED, YELLOW);
+        sut.lightSwitched(2_500, light, YELLOW, GREEN);
+        sut.cycleEnded(9_000, "I1", "C1");
+        sut.flush();
+
+        assertEquals(List.of(
+                "CYCLE_STARTED I1 C1 null null",
+                "LIGHT_SWITCHED I1 TL1 RED YELLOW",
+                "LIGHT_SWITCHED I1 TL1 YELLOW GREEN",
+                "CYCLE_ENDED I1 C1 null null"), events);
+    }
+
+    @Test
+    void shouldDropEventsWhenBufferIsFull() throws InterruptedException {
+        var sinkEntered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        sut = new SignalEventLog(4, (timestamp, type, intersection, source, oldColor, newColor) -> {
+            sinkEntered.countDown();
+            awaitQuietly(release);
+            events.add(source);
+        });
+
+        sut.cycleStarted(0, "I1", "first");
+        sinkEntered.await();
+        for (int i = 0; i < 10; i++) {
+            sut.cycleStarted(i, "I1", "C" + i);
+        }
+        release.countDown();
+        sut.flush();
+
+        // the event being written still occupies its slot
+        assertEquals(7, sut.getDropped());
+        assertEquals(List.of("first", "C0", "C1", "C2"), events);
+    }
+
+    @Test
+    void shouldNotLoseEventsOfConcurrentProducers() throws InterruptedException {
+        sut = new SignalEventLog(1 << 16, this::record);
+        int producers = 4;
+        int eventsPerProducer = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String intersection = "I" + p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    sut.cycleStarted(i, intersection, "C");
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        sut.flush();
+
+        assertEquals(0, sut.getDropped());
+        assertEquals(producers * eventsPerProducer, events.size());
+    }
+
+    @Test
+    void shouldLeaveIntersectionEmptyForUnassignedLight() {
+        List<String> intersections = new ArrayList<>();
+        sut = new SignalEventLog(4, (timestamp, type, intersection, source, oldColor, newColor) -> intersections.add(intersection));
+
+        sut.lightSwitched(0, new RoadTrafficLight("TL1", "TL1"), null, RED);
+        sut.flush();
+
+        assertEquals(1, intersections.size());
+        assertNull(intersections.getFirst());
+    }
+
+    private void record(long timestamp, SignalEventType type, String intersection, String source, Color oldColor, Color newColor) {
+        events.add(type + " " + intersection + " " + source + " " + oldColor + " " + newColor);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.coffee.component.intersection;
+
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.route.Route;
+import org.coffee.utils.IntersectionGenerator;
+import org.coffee.utils.IntersectionSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollisionMatrixTest {
+
+    private List<Route> routes;
+    private CollisionMatrix sut;
+
+    @BeforeEach
+    void setUp() throws IncorrectRoutesException {
+        routes = createComplexIntersection().getRoutes();
+        sut = new CollisionMatrix(routes);
+    }
+
+    @Test
+    void shouldMatchPairwiseRules() {
+        for (int i = 0; i < routes.size(); i++) {
+            for (int j = 0; j < routes.size(); j++) {
+                if (i == j) {
+                    continue;
+                }
+                boolean expected = IntersectionUtils.isAllowedToGo(routes.get(i), routes.get(j))
+                        && IntersectionUtils.isAllowedToGo(routes.get(j), routes.get(i));
+                assertEquals(expected, sut.isCompatible(i, j), routes.get(i).getId() + " - " + routes.get(j).getId());
+            }
+        }
+    }
+
+    @Test
+    void shouldAcceptCyclesOfComplexIntersection() throws IncorrectRoutesException {
+        createComplexIntersection().getCycles()
+                .forEach(cycle -> assertTrue(new CollisionMatrix(cycle.getRoutes()).isConflictFree(cycle.getRoutes())));
+    }
+
+    @Test
+    void shouldRejectConflictingRoutes() {
+        assertFalse(sut.isConflictFree(List.of(routes.get(0), routes.get(2))));
+        assertTrue(sut.isConflictFree(List.of(routes.get(0), routes.get(1))));
+    }
+
+    @Test
+    void shouldCheckIfRouteCanJoinSet() {
+        long[] set = sut.bitsetOf(List.of(routes.get(0)));
+        assertTrue(sut.canJoin(set, 1));
+        assertFalse(sut.canJoin(set, 2));
+    }
+
+    @Test
+    void shouldHandleMoreThanOneWord() {
+        var many = new IntersectionGenerator(7).generateRoutes("I", IntersectionSpec.of(4, 17, WorkingMode.INTELLIGENT));
+        var matrix = new CollisionMatrix(many);
+        assertEquals(2, matrix.words());
+        assertEquals(many.size(), new HashSet<>(many).size());
+
+        for (int i : new int[]{63, 64}) {
+            for (int j = 0; j < many.size(); j++) {
+                if (i == j) {
+                    continue;
+                }
+                boolean expected = IntersectionUtils.isAllowedToGo(many.get(i), many.get(j))
+                        && IntersectionUtils.isAllowedToGo(many.get(j), many.get(i));
+                assertEquals(expected, matrix.isCompatible(i, j), many.get(i).getId() + " - " + many.get(j).getId());
+                assertEquals(expected, matrix.isCompatible(j, i), many.get(j).getId() + " - " + many.get(i).getId());
+                assertEquals(expected, matrix.canJoin(matrix.bitsetOf(List.of(many.get(i))), j));
+                assertEquals(expected, matrix.canJoin(matrix.bitsetOf(List.of(many.get(j))), i));
+            }
+        }
+        assertTrue(matrix.isCompatible(63, 64));
+    }
+
+    @Test
+    void shouldThrowForUnknownRoute() {
+        var other = new CollisionMatrix(List.of(routes.get(0)));
+        assertThrows(IllegalArgumentException.class, () -> other.indexOf(routes.get(1)));
+    }
+}
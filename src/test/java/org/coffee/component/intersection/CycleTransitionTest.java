@@ -0,0 +1,120 @@
+package org.coffee.component.intersection;
+
+import org.coffee.component.attribute.Color;
+import org.coffee.component.attribute.Location;
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.cycle.Cycle;
+import org.coffee.component.event.SignalEventLog;
+import org.coffee.component.lane.LaneInbound;
+import org.coffee.component.lane.LaneOutbound;
+import org.coffee.component.light.RoadTrafficLight;
+import org.coffee.component.route.Route;
+import org.coffee.component.sensor.Camera;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.coffee.component.attribute.Location.EAST;
+import static org.coffee.component.attribute.Location.NORTH;
+import static org.coffee.component.attribute.Location.SOUTH;
+import static org.coffee.component.attribute.Location.WEST;
+import static org.coffee.component.attribute.RouteType.NORMAL;
+import static org.coffee.component.intersection.IntergreenMatrix.LEFT_TURN_CLEARANCE;
+import static org.coffee.component.intersection.IntergreenMatrix.RIGHT_TURN_CLEARANCE;
+import static org.coffee.component.intersection.IntergreenMatrix.STRAIGHT_CLEARANCE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CycleTransitionTest {
+
+    private final SimulationClock clock = new SimulationClock();
+    private final IntersectionEnvironment environment = IntersectionEnvironment.simulated(clock);
+    private Route northStraight;
+    private Route southStraight;
+    private Route eastStraight;
+    private CollisionMatrix collisionMatrix;
+
+    @BeforeEach
+    void setUp() {
+        northStraight = route("R1", NORTH, SOUTH);
+        southStraight = route("R2", SOUTH, NORTH);
+        eastStraight = route("R3", EAST, WEST);
+        collisionMatrix = new CollisionMatrix(List.of(northStraight, southStraight, eastStraight));
+    }
+
+    @Test
+    void shouldTakeClearanceFromLongestMovementOfOutgoingRoute() {
+        var routes = List.of(route("R1", NORTH, WEST), route("R2", NORTH, SOUTH), route("R3", NORTH, EAST), route("R4", EAST, WEST));
+        var sut = new IntergreenMatrix(new CollisionMatrix(routes));
+
+        assertEquals(RIGHT_TURN_CLEARANCE, sut.millis(0, 3));
+        assertEquals(STRAIGHT_CLEARANCE, sut.millis(1, 3));
+        assertEquals(LEFT_TURN_CLEARANCE, sut.millis(2, 3));
+        assertEquals(0, sut.millis(0, 1));
+        assertEquals(0, sut.millis(3, 3));
+    }
+
+    @Test
+    void shouldStartEachRouteWhenItsConflictsHaveCleared() {
+        var first = new Cycle("C1", List.of(northStraight), 5);
+        var second = new Cycle("C2", List.of(southStraight, eastStraight), 5);
+        var sut = new CycleTransition(collisionMatrix, new IntergreenMatrix(collisionMatrix), List.of(first, second),
+                clock, environment.dispatcher());
+        sut.run(sut.plan(null, first));
+        long start = clock.millis();
+
+        var times = sut.run(sut.plan(first, second));
+
+        // compatible route starts at once, conflicting one after red and straight clearance
+        assertEquals(start, times.allowStart());
+        assertEquals(start + 1500, times.stopEnd());
+        assertEquals(start + 1500 + STRAIGHT_CLEARANCE + 1500, times.end());
+        assertTrue(southStraight.isAllowingTraffic());
+        assertTrue(eastStraight.isAllowingTraffic());
+        assertFalse(northStraight.isAllowingTraffic());
+    }
+
+    @Test
+    void shouldKeepRoutesOfBothCyclesGreen() {
+        var first = new Cycle("C1", List.of(northStraight, southStraight), 5);
+        var second = new Cycle("C2", List.of(southStraight), 5);
+        var sut = new CycleTransition(collisionMatrix, new IntergreenMatrix(collisionMatrix), List.of(first, second),
+                clock, environment.dispatcher());
+        sut.run(sut.plan(null, first));
+
+        TransitionPlan plan = sut.plan(first, second);
+        assertSame(plan, sut.plan(first, second));
+        assertEquals(List.of(northStraight), plan.getStopping());
+        assertEquals(List.of(southStraight), plan.getStaying());
+        assertTrue(plan.getStarting().isEmpty());
+
+        var colors = new ArrayList<Color>();
+        SignalEventLog.setDefault(new SignalEventLog(16, (timestamp, type, intersection, source, oldColor, newColor) -> {
+            if (source.equals("R2-TL")) {
+                colors.add(newColor);
+            }
+        }));
+        try {
+            sut.run(plan);
+            sut.run(sut.plan(second, first));
+            SignalEventLog.getDefault().flush();
+        } finally {
+            SignalEventLog.getDefault().close();
+            SignalEventLog.setDefault(null);
+        }
+        assertTrue(colors.isEmpty());
+        assertTrue(northStraight.isAllowingTraffic());
+        assertTrue(southStraight.isAllowingTraffic());
+    }
+
+    private Route route(String id, Location from, Location to) {
+        var lane = new LaneInbound(id + "-in", id + "-in", from, new Camera(id, id));
+        return new Route(id, NORMAL, lane, singletonList(new LaneOutbound(id + "-out", id + "-out", to, false)),
+                singletonList(new RoadTrafficLight(id + "-TL", id + "-TL", clock)));
+    }
+}
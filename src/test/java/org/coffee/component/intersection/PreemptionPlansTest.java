@@ -0,0 +1,64 @@
+package org.coffee.component.intersection;
+
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.cycle.Cycle;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.route.Route;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreemptionPlansTest {
+
+    private CollisionMatrix collisionMatrix;
+    private List<Cycle> cycles;
+    private PreemptionPlans sut;
+
+    @BeforeEach
+    void setUp() throws IncorrectRoutesException {
+        Intersection intersection = createComplexIntersection(WorkingMode.CYCLES, new Random(1));
+        collisionMatrix = intersection.getCollisionMatrix();
+        cycles = intersection.getCycles();
+        sut = new PreemptionPlans(collisionMatrix, new IntergreenMatrix(collisionMatrix), cycles, 60,
+                intersection.getEnvironment().clock(), intersection.getEnvironment().dispatcher());
+    }
+
+    @Test
+    void shouldStopOnlyRoutesConflictingWithPreemptingRoute() {
+        Cycle green = cycles.get(0);
+        int route = collisionMatrix.indexOf(cycles.get(1).getRoutes().get(0));
+
+        PreemptionPlans.Preemption preemption = sut.plan(green, 0, route);
+
+        Route preempting = collisionMatrix.route(route);
+        assertEquals(List.of(preempting), preemption.plan().getStarting());
+        for (Route other : green.getRoutes()) {
+            boolean compatible = collisionMatrix.isCompatible(other, preempting);
+            assertEquals(compatible, preemption.target().getRoutes().contains(other));
+            assertEquals(!compatible, preemption.plan().getStopping().contains(other));
+        }
+        assertFalse(preemption.plan().getStopping().isEmpty());
+        assertTrue(preemption.plan().clearance(0) > 0);
+    }
+
+    @Test
+    void shouldUseCompiledPlansForPlannedCyclesAndNoGreenCycle() {
+        int route = collisionMatrix.indexOf(cycles.get(2).getRoutes().get(0));
+        Cycle unplanned = new Cycle("D1", cycles.get(0).getRoutes(), 5);
+
+        assertSame(sut.plan(cycles.get(0), 0, route), sut.plan(cycles.get(0), 0, route));
+        assertSame(sut.plan(null, -1, route), sut.plan(null, -1, route));
+        assertTrue(sut.plan(null, -1, route).plan().getStopping().isEmpty());
+        assertNotSame(sut.plan(unplanned, -1, route), sut.plan(unplanned, -1, route));
+        assertEquals(sut.plan(cycles.get(0), 0, route).plan().getStopping(), sut.plan(unplanned, -1, route).plan().getStopping());
+    }
+}
@@ -0,0 +1,198 @@
+package org.coffee.component.journal;
+
+import org.coffee.component.event.SignalEventLog;
+import org.coffee.component.light.RoadTrafficLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.coffee.component.attribute.Color.GREEN;
+import static org.coffee.component.attribute.Color.RED;
+import static org.coffee.component.attribute.Color.YELLOW;
+import static org.coffee.component.event.SignalEventType.CYCLE_ENDED;
+import static org.coffee.component.event.SignalEventType.CYCLE_STARTED;
+import static org.coffee.component.event.SignalEventType.LIGHT_SWITCHED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignalJournalTest {
+
+    private static final int SEGMENT_SIZE = 8192;
+    private static final Duration FLUSH_INTERVAL = Duration.ofMillis(100);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackWrittenRecords() throws IOException {
+        try (var sut = new SignalJournal(directory, SEGMENT_SIZE, FLUSH_INTERVAL)) {
+            sut.accept(10, CYCLE_STARTED, "I1", "C1", null, null);
+            sut.accept(11, LIGHT_SWITCHED, "I1", "TL1", RED, YELLOW);
+        }
+
+        var records = new SignalJournalReader(directory).read();
+
+        assertEquals(2, records.size());
+        assertEquals(new JournalRecord(10, CYCLE_STARTED, "I1", "C1", null, null), records.get(0));
+        assertEquals(new JournalRecord(11, LIGHT_SWITCHED, "I1", "TL1", RED, YELLOW), records.get(1));
+    }
+
+    @Test
+    void shouldRotateSegments() throws IOException {
+        try (var sut = new SignalJournal(directory, SEGMENT_SIZE, FLUSH_INTERVAL)) {
+            for (int i = 0; i < 1_000; i++) {
+                sut.accept(i, LIGHT_SWITCHED, "I1", "TL" + i, RED, GREEN);
+            }
+        }
+
+        var records = new SignalJournalReader(directory).read();
+
+        assertTrue(SignalJournal.segments(directory).size() > 1);
+        assertEquals(1_000, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i, records.get(i).timestamp());
+        }
+    }
+
+    @Test
+    void shouldContinueJournalAfterRestart() throws IOException {
+        try (var sut = new SignalJournal(directory, SEGMENT_SIZE, FLUSH_INTERVAL)) {
+            sut.accept(1, CYCLE_STARTED, "I1", "C1", null, null);
+        }
+        try (var sut = new SignalJournal(directory, SEGMENT_SIZE, FLUSH_INTERVAL)) {
+            sut.accept(2, CYCLE_ENDED, "I1", "C1", null, null);
+        }
+
+        assertEquals(2, new SignalJournalReader(directory).read().size());
+    }
+
+    @Test
+    void shouldReconstructStateAtTimestamp() throws IOException {
+        try (var sut = new SignalJournal(directory, SEGMENT_SIZE, FLUSH_INTERVAL)) {
+            sut.accept(100, CYCLE_STARTED, "I1", "C1", null, null);
+            sut.accept(100, LIGHT_SWITCHED, "I1", "TL1", RED, YELLOW);
+            sut.accept(1600, LIGHT_SWITCHED, "I1", "TL1", YELLOW, GREEN);
+            sut.accept(5000, LIGHT_SWITCHED, "I1", "TL1", GREEN, YELLOW);
+            sut.accept(6500, LIGHT_SWITCHED, "I1", "TL1", YELLOW, RED);
+            sut.accept(6500, CYCLE_ENDED, "I1", "C1", null, null);
+        }
+        var sut = new SignalJournalReader(directory);
+
+        var green = sut.stateAt(3000).get("I1");
+        assertEquals("C1", green.cycle());
+        assertEquals(GREEN, green.lights().get("TL1"));
+
+        var ended = sut.stateAt(7000).get("I1");
+        assertNull(ended.cycle());
+        assertEquals(RED, ended.lights().get("TL1"));
+    }
+
+    @Test
+    void shouldStopAtCorruptedRecord() throws IOException {
+        try (var sut = new SignalJournal(directory, SEGMENT_SIZE, FLUSH_INTERVAL)) {
+            sut.accept(1, CYCLE_STARTED, "I1", "C1", null, null);
+            sut.accept(2, CYCLE_ENDED, "I1", "C1", null, null);
+        }
+        Path segment = SignalJournal.segments(directory).getFirst();
+        int recordSize = SignalJournal.RECORD_HEADER_SIZE + Long.BYTES + 3 + 2 * (Short.BYTES + 2 * Character.BYTES);
+        try (var channel = FileChannel.open(segment, READ, WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), SignalJournal.SEGMENT_HEADER_SIZE + recordSize + SignalJournal.RECORD_HEADER_SIZE);
+        }
+        var sut = new SignalJournalReader(directory);
+
+        assertEquals(1, sut.read().size());
+        assertEquals(1, sut.getCorruptedRecords());
+    }
+
+    @Test
+    void shouldCountRecordsThatCannotBeWritten() throws IOException {
+        try (var sut = new SignalJournal(directory, SEGMENT_SIZE, FLUSH_INTERVAL)) {
+            sut.accept(1, CYCLE_STARTED, "I1", "C".repeat(SignalJournal.MAX_ID_LENGTH + 1), null, null);
+            sut.accept(2, CYCLE_ENDED, "I1", "C1", null, null);
+
+            assertEquals(1, sut.getFailures());
+            assertEquals(1, sut.getRecords());
+        }
+
+        assertEquals(1, new SignalJournalReader(directory).read().size());
+    }
+
+    @Test
+    void shouldJournalOnWriterThreadWithoutFailingPublisher() throws Exception {
+        var log = new SignalEventLog(16, (timestamp, type, intersection, source, oldColor, newColor) -> { });
+        var light = new RoadTrafficLight("TL1", "TL1");
+        light.assignTo("I1");
+        var journalThread = new CompletableFuture<Thread>();
+        try {
+            log.setJournal((timestamp, type, intersection, source, oldColor, newColor) -> {
+                journalThread.complete(Thread.currentThread());
+                throw new IllegalStateException("journal is broken");
+            });
+            log.lightSwitched(1_000, light, RED, YELLOW);
+
+            assertNotEquals(Thread.currentThread(), journalThread.get(5, TimeUnit.SECONDS));
+        } finally {
+            log.close();
+        }
+    }
+
+    @Test
+    void shouldJournalLightChangesFromEventLog() throws IOException {
+        var log = new SignalEventLog(16, (timestamp, type, intersection, source, oldColor, newColor) -> { });
+        var light = new RoadTrafficLight("TL1", "TL1");
+        light.assignTo("I1");
+        try (var sut = new SignalJournal(directory, SEGMENT_SIZE, FLUSH_INTERVAL)) {
+            log.setJournal(sut);
+            log.lightSwitched(1_000, light, RED, YELLOW);
+            log.cycleStarted(1_000, "I1", "C1");
+            log.flush();
+        } finally {
+            log.close();
+        }
+
+        var records = new SignalJournalReader(directory).read();
+        assertEquals(2, records.size());
+        assertEquals("I1", records.getFirst().intersection());
+        assertEquals("TL1", records.getFirst().source());
+    }
+
+    @Test
+    void shouldJournalEveryEventWhenSinkFallsBehind() throws Exception {
+        var release = new CountDownLatch(1);
+        var log = new SignalEventLog(2, (timestamp, type, intersection, source, oldColor, newColor) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try (var sut = new SignalJournal(directory, SEGMENT_SIZE, FLUSH_INTERVAL)) {
+            log.setJournal(sut);
+            for (int i = 0; i < 10; i++) {
+                log.cycleStarted(i, "I1", "C" + i);
+            }
+            assertTrue(log.getDropped() > 0);
+            release.countDown();
+            log.flush();
+        } finally {
+            release.countDown();
+            log.close();
+        }
+
+        var records = new SignalJournalReader(directory).read();
+        assertEquals(10, records.size());
+        assertEquals("C9", records.getLast().source());
+    }
+}
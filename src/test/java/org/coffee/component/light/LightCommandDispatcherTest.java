@@ -0,0 +1,83 @@
+package org.coffee.component.light;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.coffee.component.light.LightCommand.Action.ALLOW;
+import static org.coffee.component.light.LightCommand.Action.STOP;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LightCommandDispatcherTest {
+
+    private LightCommandDispatcher sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new LightCommandDispatcher(2, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.shutdown();
+    }
+
+    @Test
+    void shouldExecuteCommandsForTheSameLightInOrder() {
+        TrafficLight light = mock(TrafficLight.class);
+        CompletableFuture<Void> allowTransition = new CompletableFuture<>();
+        when(light.allowTraffic()).thenReturn(allowTransition);
+        when(light.stopTraffic()).thenReturn(completedFuture(null));
+
+        var allow = sut.dispatch(List.of(new LightCommand(light, ALLOW)));
+        var stop = sut.dispatch(List.of(new LightCommand(light, STOP)));
+
+        verify(light, timeout(1_000)).allowTraffic();
+        verify(light, after(100).never()).stopTraffic();
+        assertFalse(stop.isDone());
+
+        allowTransition.complete(null);
+        allow.join();
+        stop.join();
+        verify(light).stopTraffic();
+    }
+
+    @Test
+    void shouldExecuteBatchForDifferentLightsInParallel() {
+        TrafficLight light1 = mock(TrafficLight.class);
+        TrafficLight light2 = mock(TrafficLight.class);
+        when(light1.allowTraffic()).thenReturn(new CompletableFuture<>());
+        when(light2.allowTraffic()).thenReturn(completedFuture(null));
+
+        var batch = sut.dispatch(List.of(new LightCommand(light1, ALLOW), new LightCommand(light2, ALLOW)));
+
+        verify(light2, timeout(1_000)).allowTraffic();
+        assertFalse(batch.isDone());
+    }
+
+    @Test
+    void shouldCountFailedCommandsWithoutFailingBatch() {
+        TrafficLight light = mock(TrafficLight.class);
+        when(light.getId()).thenReturn("TL1");
+        when(light.allowTraffic()).thenThrow(new IllegalStateException("device offline"));
+
+        sut.dispatch(List.of(new LightCommand(light, ALLOW))).join();
+
+        DispatcherMetrics metrics = sut.getMetrics();
+        assertEquals(1, metrics.batches());
+        assertEquals(1, metrics.commands());
+        assertEquals(1, metrics.failedCommands());
+        assertTrue(metrics.poolSize() <= 2);
+    }
+}
@@ -0,0 +1,79 @@
+package org.coffee.component.light;
+
+import org.coffee.component.attribute.Color;
+import org.coffee.component.clock.SimulationClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.coffee.component.attribute.Color.BLACK;
+import static org.coffee.component.attribute.Color.GREEN;
+import static org.coffee.component.attribute.Color.RED;
+import static org.coffee.component.attribute.Color.YELLOW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LightStateBoardTest {
+
+    @Test
+    void shouldFollowColorsOfLights() {
+        var clock = new SimulationClock();
+        List<TrafficLight> lights = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            lights.add(new RoadTrafficLight("TL" + i, "TL" + i, clock));
+        }
+        var pedestrian = new PedestrianTrafficLight("P", "P", clock);
+        var arrow = new ConditionalArrowTrafficLight("A", "A", clock);
+        lights.add(pedestrian);
+        lights.add(arrow);
+        lights.add(pedestrian);
+        var sut = new LightStateBoard(lights);
+
+        lights.get(35).allowTraffic();
+        pedestrian.allowTraffic();
+        assertEquals(YELLOW, sut.color(35));
+        clock.sleep(1500);
+        long[] snapshot = sut.snapshot();
+
+        assertEquals(42, sut.size());
+        assertEquals(2, snapshot.length);
+        assertEquals(GREEN, sut.color(35));
+        assertEquals(GREEN, LightStateBoard.color(snapshot, sut.slotOf(pedestrian)));
+        assertEquals(BLACK, LightStateBoard.color(snapshot, sut.slotOf(arrow)));
+        assertEquals(2, LightStateBoard.count(snapshot, sut.size(), GREEN));
+        assertEquals(39, LightStateBoard.count(snapshot, sut.size(), RED));
+        assertEquals(1, LightStateBoard.count(snapshot, sut.size(), BLACK));
+    }
+
+    @Test
+    void shouldReadConsistentSnapshotWhileLightsChange() throws InterruptedException {
+        List<TrafficLight> lights = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            lights.add(new ConditionalArrowTrafficLight("A" + i, "A" + i));
+        }
+        var sut = new LightStateBoard(lights);
+        // lights are switched one by one in order, so every consistent snapshot is a prefix of one color
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int round = 0; round < 2000; round++) {
+                Color color = round % 2 == 0 ? GREEN : BLACK;
+                for (int slot = 0; slot < lights.size(); slot++) {
+                    new LightStateBoard.Slot(sut, slot).set(color);
+                }
+            }
+        });
+
+        long[] snapshot = new long[LightStateBoard.words(lights.size())];
+        while (writer.isAlive()) {
+            sut.read(snapshot);
+            int changes = 0;
+            for (int slot = 1; slot < lights.size(); slot++) {
+                if (LightStateBoard.color(snapshot, slot) != LightStateBoard.color(snapshot, slot - 1)) {
+                    changes++;
+                }
+            }
+            assertTrue(changes <= 1);
+        }
+        writer.join();
+    }
+}
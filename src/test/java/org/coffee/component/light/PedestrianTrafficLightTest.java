@@ -19,15 +19,15 @@ class PedestrianTrafficLightTest {
     }
 
     @Test
-    void testAllowTraffic() throws InterruptedException {
-        sut.allowTraffic();
+    void testAllowTraffic() {
+        sut.allowTraffic().join();
         assertEquals(GREEN, sut.getColor());
         assertTrue(sut.isAllowingTraffic());
     }
 
     @Test
-    void testStopTraffic() throws InterruptedException {
-        sut.stopTraffic();
+    void testStopTraffic() {
+        sut.stopTraffic().join();
         assertEquals(RED, sut.getColor());
         assertFalse(sut.isAllowingTraffic());
     }
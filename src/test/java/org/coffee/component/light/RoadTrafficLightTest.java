@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.coffee.component.attribute.Color.GREEN;
 import static org.coffee.component.attribute.Color.RED;
+import static org.coffee.component.attribute.Color.YELLOW;
 import static org.junit.jupiter.api.Assertions.*;
 
 class RoadTrafficLightTest {
@@ -17,15 +18,15 @@ class RoadTrafficLightTest {
     }
 
     @Test
-    void testAllowTraffic() throws InterruptedException {
-        sut.allowTraffic();
+    void testAllowTraffic() {
+        sut.allowTraffic().join();
         assertEquals(GREEN, sut.getColor());
         assertTrue(sut.isAllowingTraffic());
     }
 
     @Test
-    void testStopTraffic() throws InterruptedException {
-        sut.stopTraffic();
+    void testStopTraffic() {
+        sut.stopTraffic().join();
         assertEquals(RED, sut.getColor());
         assertFalse(sut.isAllowingTraffic());
     }
@@ -37,6 +38,24 @@ class RoadTrafficLightTest {
         assertFalse(sut.isAllowingTraffic());
     }
 
+    @Test
+    void shouldShowYellowWithoutBlockingCaller() {
+        var transition = sut.allowTraffic();
+        assertEquals(YELLOW, sut.getColor());
+        assertFalse(transition.isDone());
 
+        transition.join();
+        assertEquals(GREEN, sut.getColor());
+    }
 
-}
\ No newline at end of file
+    @Test
+    void shouldLetLaterTransitionWin() {
+        var allow = sut.allowTraffic();
+        var stop = sut.stopTraffic();
+
+        allow.join();
+        assertNotEquals(GREEN, sut.getColor());
+        stop.join();
+        assertEquals(RED, sut.getColor());
+    }
+}
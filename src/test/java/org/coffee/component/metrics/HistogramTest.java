@@ -0,0 +1,59 @@
+package org.coffee.component.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    private final Histogram sut = new Histogram();
+
+    @Test
+    void shouldKeepSmallValuesExact() {
+        for (int i = 0; i < 10; i++) {
+            sut.record(i);
+        }
+
+        var snapshot = sut.snapshot();
+        assertEquals(10, snapshot.count());
+        assertEquals(45, snapshot.sum());
+        assertEquals(4, snapshot.p50());
+        assertEquals(9, snapshot.p99());
+        assertEquals(9, snapshot.max());
+    }
+
+    @Test
+    void shouldEstimatePercentilesWithinBucketPrecision() {
+        for (int i = 1; i <= 100_000; i++) {
+            sut.record(i);
+        }
+
+        var snapshot = sut.snapshot();
+        assertWithin(50_000, snapshot.p50());
+        assertWithin(90_000, snapshot.p90());
+        assertWithin(99_000, snapshot.p99());
+        assertEquals(100_000, snapshot.max());
+    }
+
+    @Test
+    void shouldPlaceEveryValueInBucketContainingIt() {
+        long[] values = {0, 15, 16, 17, 1500, 1_000_000, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(Histogram.upperBoundOf(bucket) >= value);
+            assertTrue(bucket == 0 || Histogram.upperBoundOf(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    void shouldTreatNegativeValuesAsZero() {
+        sut.record(-5);
+
+        assertEquals(0, sut.snapshot().max());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.125, "Expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,68 @@
+package org.coffee.component.metrics;
+
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.intersection.Intersection;
+import org.coffee.simulation.Simulation;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Random;
+
+import javax.management.ObjectName;
+
+import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
+import static org.coffee.utils.IntersectionComponentsCreator.createSimpleIntersection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntersectionMetricsTest {
+
+    @Test
+    void shouldMeasureCyclePhases() throws IncorrectRoutesException, InterruptedException {
+        // C1 with R1, R2 green for 3 s, C2 with R3, R4 green for 5 s
+        var simulation = new Simulation(new SimulationClock());
+        Intersection simple = createSimpleIntersection(simulation.environment());
+        Intersection intersection = new Intersection("I1", "I1", simple.getRoutes(), simple.getCycles(), WorkingMode.CYCLES,
+                simulation.environment());
+        var report = simulation.run(intersection, Duration.ofHours(1));
+
+        var snapshot = intersection.getMetrics().snapshot();
+        assertEquals(report.decisions(), snapshot.decisions());
+        assertEquals(1500, snapshot.allowLatencyMillis().max());
+        assertEquals(1500, snapshot.stopLatencyMillis().p50());
+        assertEquals(1500, snapshot.allRedMillis().mean());
+        assertEquals(3000, snapshot.yellowMillis().mean());
+        assertEquals(4000, snapshot.greenMillis().mean(), 10);
+        assertEquals(5000, snapshot.greenMillis().max());
+        // stop, all-red, yellow, 5 s of the other cycle, yellow, all-red
+        assertEquals(11_000, snapshot.waitingPerRoute().get("R1").maxMillis());
+        assertEquals(9_000, snapshot.waitingPerRoute().get("R3").maxMillis());
+    }
+
+    @Test
+    void shouldCountSkippedCycles() throws IncorrectRoutesException, InterruptedException {
+        var simulation = new Simulation(new SimulationClock());
+        var intersection = createComplexIntersection(WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE, new Random(3), simulation.environment());
+        simulation.run(intersection, Duration.ofHours(1));
+
+        var snapshot = intersection.getMetrics().snapshot();
+        assertTrue(snapshot.skippedCycles() > 0);
+        assertTrue(snapshot.decisionTimeMicros().count() > 0);
+    }
+
+    @Test
+    void shouldRegisterInJmx() throws Exception {
+        var metrics = createSimpleIntersection().getMetrics();
+        var name = new ObjectName("org.coffee:type=Intersection,name=" + ObjectName.quote("I1"));
+
+        metrics.register();
+        assertEquals(0L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Decisions"));
+
+        metrics.unregister();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,80 @@
+package org.coffee.component.safety;
+
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.intersection.Intersection;
+import org.coffee.component.intersection.IntersectionEnvironment;
+import org.coffee.component.route.Route;
+import org.coffee.simulation.Simulation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
+import static org.coffee.utils.IntersectionComponentsCreator.createSimpleIntersection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SafetyVerifierTest {
+
+    @Test
+    void shouldForceDefaultSignalWhenConflictingRoutesAreGreen() throws IncorrectRoutesException, InterruptedException {
+        var clock = new SimulationClock();
+        var environment = IntersectionEnvironment.simulated(clock);
+        Intersection intersection = createSimpleIntersection(environment);
+        SafetyVerifier sut = intersection.getSafetyVerifier();
+        // R1 (north) and R3 (east) cross each other
+        List<Route> routes = intersection.getRoutes();
+
+        clock.await(routes.get(0).allowTrafficAsync(environment.dispatcher()));
+        assertTrue(sut.isGreen(routes.get(0)));
+        assertFalse(sut.isViolated());
+        clock.await(routes.get(2).allowTrafficAsync(environment.dispatcher()));
+        assertTrue(sut.isViolated());
+        assertEquals(1, sut.getViolations());
+
+        clock.sleep(0);
+        assertFalse(routes.get(0).isAllowingTraffic());
+        assertFalse(routes.get(2).isAllowingTraffic());
+        assertFalse(sut.isGreen(routes.get(2)));
+        assertThrows(IllegalStateException.class, intersection::updateState);
+    }
+
+    @Test
+    void shouldKeepDefaultSignalWhenLightTurnsGreenAfterViolation() throws IncorrectRoutesException {
+        var clock = new SimulationClock();
+        var environment = IntersectionEnvironment.simulated(clock);
+        Intersection intersection = createSimpleIntersection(environment);
+        SafetyVerifier sut = intersection.getSafetyVerifier();
+        List<Route> routes = intersection.getRoutes();
+        clock.await(routes.get(0).allowTrafficAsync(environment.dispatcher()));
+        clock.await(routes.get(2).allowTrafficAsync(environment.dispatcher()));
+        clock.sleep(0);
+
+        // e.g. a transition started before the violation
+        CompletableFuture<Void> late = routes.get(1).allowTrafficAsync(environment.dispatcher());
+        clock.await(late);
+        clock.sleep(0);
+
+        assertEquals(1, sut.getViolations());
+        assertTrue(routes.stream().noneMatch(Route::isAllowingTraffic));
+    }
+
+    @ParameterizedTest
+    @EnumSource(WorkingMode.class)
+    void shouldNotReportViolationsOfController(WorkingMode workingMode) throws IncorrectRoutesException, InterruptedException {
+        var simulation = new Simulation(new SimulationClock());
+        var intersection = createComplexIntersection(workingMode, new Random(17), simulation.environment());
+        simulation.run(intersection, Duration.ofHours(2));
+
+        assertEquals(0, intersection.getSafetyVerifier().getViolations());
+    }
+}
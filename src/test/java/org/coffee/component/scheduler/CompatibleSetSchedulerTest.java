@@ -0,0 +1,116 @@
+package org.coffee.component.scheduler;
+
+import org.coffee.component.attribute.RouteType;
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.intersection.CollisionMatrix;
+import org.coffee.component.route.Route;
+import org.coffee.utils.IntersectionGenerator;
+import org.coffee.utils.IntersectionSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompatibleSetSchedulerTest {
+
+    private static final int MAX_AGE = 5;
+
+    private List<Route> routes;
+    private CollisionMatrix collisionMatrix;
+    private CompatibleSetScheduler sut;
+
+    @BeforeEach
+    void setUp() throws IncorrectRoutesException {
+        routes = createComplexIntersection().getRoutes();
+        collisionMatrix = new CollisionMatrix(routes);
+        sut = new CompatibleSetScheduler(collisionMatrix, MAX_AGE);
+    }
+
+    @Test
+    void shouldChooseConflictFreeSetWithHighestPressure() {
+        // R1, R2, R3, R4, R5, R6, R7, R8
+        long[] result = sut.nextGreenSet(new int[]{1, 1, 10, 10, 0, 0, 0, 0});
+
+        assertTrue(collisionMatrix.isConflictFree(result));
+        assertTrue(isSet(result, 2));
+        assertTrue(isSet(result, 3));
+        assertFalse(isSet(result, 0));
+    }
+
+    @Test
+    void shouldNeverScheduleConditionalRoutes() {
+        long[] result = sut.nextGreenSet(new int[]{0, 0, 0, 0, 10, 0, 0, 10});
+
+        assertFalse(isSet(result, 4));
+        assertFalse(isSet(result, 7));
+    }
+
+    @Test
+    void shouldServeStarvingRoute() {
+        int[] pressures = {1, 0, 10, 10, 0, 0, 0, 0};
+        for (int i = 0; i < MAX_AGE; i++) {
+            assertFalse(isSet(sut.nextGreenSet(pressures), 0));
+        }
+        assertEquals(MAX_AGE, sut.getAge(0));
+
+        assertTrue(isSet(sut.nextGreenSet(pressures), 0));
+        assertEquals(0, sut.getAge(0));
+    }
+
+    @Test
+    void shouldServeRouteWithinMaxAgeWhenItsReadingFlickersToZero() {
+        double[] demands = {0.8, 0, 10, 10, 0, 0, 0, 0};
+        int served = -1;
+        for (int decision = 0; decision <= MAX_AGE && served < 0; decision++) {
+            int[] pressures = {decision % 2 == 0 ? 1 : 0, 0, 10, 10, 0, 0, 0, 0};
+            if (isSet(sut.nextGreenSet(pressures, demands), 0)) {
+                served = decision;
+            }
+        }
+
+        assertEquals(MAX_AGE, served);
+        assertEquals(0, sut.getAge(0));
+    }
+
+    @Test
+    void shouldChooseMaximalConflictFreeSetsFor64DistinctRoutes() {
+        var many = new IntersectionGenerator(42).generateRoutes("I", IntersectionSpec.of(4, 16, WorkingMode.INTELLIGENT));
+        var matrix = new CollisionMatrix(many);
+        var scheduler = new CompatibleSetScheduler(matrix, MAX_AGE);
+        var random = new Random(42);
+        int[] pressures = new int[many.size()];
+        for (int decision = 0; decision < 200; decision++) {
+            fill(pressures, random);
+            long[] result = scheduler.nextGreenSet(pressures);
+
+            assertTrue(matrix.isConflictFree(result), "Decision " + decision);
+            for (int i = 0; i < many.size(); i++) {
+                boolean schedulable = many.get(i).getType() != RouteType.CONDITIONAL;
+                if (isSet(result, i)) {
+                    assertTrue(schedulable, "Decision " + decision + ", route " + many.get(i).getId());
+                } else if (schedulable) {
+                    assertFalse(matrix.canJoin(result, i), "Decision " + decision + ", route " + many.get(i).getId());
+                }
+                assertEquals(isSet(result, i) || pressures[i] == 0, scheduler.getAge(i) == 0,
+                        "Decision " + decision + ", route " + many.get(i).getId());
+            }
+        }
+    }
+
+    private static void fill(int[] pressures, Random random) {
+        for (int i = 0; i < pressures.length; i++) {
+            pressures[i] = random.nextInt(11);
+        }
+    }
+
+    private static boolean isSet(long[] set, int index) {
+        return (set[index >>> 6] & (1L << index)) != 0;
+    }
+}
@@ -0,0 +1,96 @@
+package org.coffee.component.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CyclePrioritySchedulerTest {
+
+    private static final int MAX_AGE = 5;
+
+    @Test
+    void shouldRotateCyclesWithEqualDemand() {
+        var sut = new CyclePriorityScheduler(3, MAX_AGE);
+
+        List<Integer> served = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            served.add(sut.next(false));
+        }
+
+        assertEquals(List.of(0, 1, 2, 0, 1, 2), served);
+    }
+
+    @Test
+    void shouldServeBusyCycleMoreOften() {
+        var sut = new CyclePriorityScheduler(3, MAX_AGE);
+        sut.update(0, 20);
+        sut.update(1, 20);
+        sut.update(2, 1);
+
+        int[] served = new int[3];
+        for (int i = 0; i < 30; i++) {
+            served[sut.next(true)]++;
+        }
+
+        assertTrue(served[0] > served[2]);
+        assertTrue(served[2] > 0);
+    }
+
+    @Test
+    void shouldServeCycleWaitingTooLongFirst() {
+        var sut = new CyclePriorityScheduler(3, MAX_AGE);
+        sut.update(0, 100);
+        sut.update(1, 100);
+        sut.update(2, 1);
+
+        for (int i = 0; i < MAX_AGE; i++) {
+            assertTrue(sut.next(true) != 2);
+        }
+
+        assertEquals(MAX_AGE, sut.getWaiting(2));
+        assertEquals(2, sut.next(true));
+    }
+
+    @Test
+    void shouldNotChooseCyclesWithoutDemandWhenDemandIsRequired() {
+        var sut = new CyclePriorityScheduler(2, MAX_AGE);
+        sut.update(1, 3);
+
+        assertEquals(1, sut.next(true));
+        assertEquals(-1, sut.next(true));
+        assertEquals(1, sut.getCurrent());
+    }
+
+    @Test
+    void shouldServeCycleWithDemandBeforeIdleCycleGreenLongerAgo() {
+        for (int cars = 1; cars < 5; cars++) {
+            var sut = new CyclePriorityScheduler(3, MAX_AGE);
+            sut.select(1);
+            sut.select(2);
+            sut.skip(4);
+            sut.select(0);
+            sut.update(2, cars);
+
+            assertEquals(2, sut.next(true), "cycle with " + cars + " cars");
+        }
+    }
+
+    @Test
+    void shouldServeLongestWaitingCycleFirstAfterSkippedDecisions() {
+        var sut = new CyclePriorityScheduler(3, MAX_AGE);
+        sut.update(0, 1);
+        sut.update(1, 10);
+        sut.update(2, 0);
+        assertEquals(1, sut.next(true));
+
+        sut.release();
+        sut.skip(MAX_AGE);
+
+        assertEquals(0, sut.next(true));
+        assertEquals(1, sut.next(true));
+    }
+}
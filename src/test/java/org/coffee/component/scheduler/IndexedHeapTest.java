@@ -0,0 +1,54 @@
+package org.coffee.component.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedHeapTest {
+
+    @Test
+    void shouldKeepHighestKeyOnTopWhileKeysChange() {
+        var random = new Random(5);
+        var sut = new IndexedHeap(64);
+        Map<Integer, Long> expected = new TreeMap<>();
+        for (int step = 0; step < 10_000; step++) {
+            int element = random.nextInt(64);
+            if (random.nextInt(4) == 0) {
+                sut.remove(element);
+                expected.remove(element);
+            } else {
+                long key = random.nextInt(20) - 10;
+                sut.put(element, key);
+                expected.put(element, key);
+            }
+            int top = expected.entrySet().stream()
+                    .max(Comparator.<Map.Entry<Integer, Long>>comparingLong(Map.Entry::getValue)
+                            .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()))
+                    .map(Map.Entry::getKey)
+                    .orElse(-1);
+            assertEquals(top, sut.peek());
+            assertEquals(expected.size(), sut.size());
+        }
+    }
+
+    @Test
+    void shouldRemoveElement() {
+        var sut = new IndexedHeap(3);
+        sut.put(0, 1);
+        sut.put(1, 3);
+        sut.put(2, 2);
+
+        sut.remove(1);
+
+        assertFalse(sut.contains(1));
+        assertTrue(sut.contains(2));
+        assertEquals(2, sut.peek());
+    }
+}
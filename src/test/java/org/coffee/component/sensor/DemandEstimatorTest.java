@@ -0,0 +1,44 @@
+package org.coffee.component.sensor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DemandEstimatorTest {
+
+    @Test
+    void shouldSmoothNoisyReadings() {
+        var sut = new DemandEstimator(0.5, 4);
+
+        sut.add(0, 4);
+        assertEquals(4, sut.getSmoothed());
+        sut.add(1_000, 10);
+        assertEquals(7, sut.getSmoothed());
+        sut.add(2_000, 0);
+        assertEquals(3.5, sut.getSmoothed());
+        assertEquals(14 / 3.0, sut.getWindowMean(), 1e-9);
+    }
+
+    @Test
+    void shouldEstimateArrivalsOverWindow() {
+        var sut = new DemandEstimator(0.3, 3);
+
+        sut.add(0, 2);
+        assertEquals(0, sut.getArrivalsPerSecond());
+        sut.add(1_000, 5);
+        assertEquals(3, sut.getArrivalsPerSecond(), 1e-9);
+        sut.add(2_000, 1);
+        assertEquals(1.5, sut.getArrivalsPerSecond(), 1e-9);
+        sut.add(4_000, 2);
+        // increase from 2 to 5 is now before the window
+        assertEquals(1 / 3.0, sut.getArrivalsPerSecond(), 1e-9);
+        assertEquals(8 / 3.0, sut.getWindowMean(), 1e-9);
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new DemandEstimator(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new DemandEstimator(0.5, 1));
+    }
+}
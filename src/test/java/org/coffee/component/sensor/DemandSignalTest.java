@@ -0,0 +1,55 @@
+package org.coffee.component.sensor;
+
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.clock.SystemClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DemandSignalTest {
+
+    @Test
+    void shouldWakeUpOnSignalWithoutLeavingTimeout() throws InterruptedException {
+        var clock = new SimulationClock();
+        var sut = new DemandSignal(clock);
+        clock.schedule(100, sut::signal);
+
+        assertTrue(sut.await(sut.version(), 10_000));
+        assertEquals(100, clock.millis());
+        assertEquals(0, clock.getPendingEvents());
+    }
+
+    @Test
+    void shouldTimeOutWithoutSignal() throws InterruptedException {
+        var clock = new SimulationClock();
+        var sut = new DemandSignal(clock);
+
+        assertFalse(sut.await(sut.version(), 10_000));
+        assertEquals(10_000, clock.millis());
+    }
+
+    @Test
+    void shouldStopWaitingWhenInterrupted() throws InterruptedException {
+        var sut = new DemandSignal(SystemClock.INSTANCE);
+        var failure = new CompletableFuture<Throwable>();
+        var waiting = new Thread(() -> {
+            try {
+                sut.await(sut.version(), 60_000);
+                failure.complete(null);
+            } catch (Throwable e) {
+                failure.complete(e);
+            }
+        });
+        waiting.start();
+        Thread.sleep(50);
+        waiting.interrupt();
+
+        assertInstanceOf(InterruptedException.class, failure.completeOnTimeout(null, 5, TimeUnit.SECONDS).join());
+    }
+}
@@ -0,0 +1,106 @@
+package org.coffee.component.sensor;
+
+import org.coffee.component.attribute.RouteType;
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.clock.SystemClock;
+import org.coffee.component.lane.LaneInbound;
+import org.coffee.component.route.Route;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyList;
+import static org.coffee.component.attribute.Location.NORTH;
+import static org.coffee.component.attribute.Location.SOUTH;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SensorSnapshotTest {
+
+    @Test
+    void shouldReadSharedLaneOncePerRefresh() {
+        Camera north = mock(Camera.class);
+        Camera south = mock(Camera.class);
+        when(north.getCars()).thenReturn(3, 5);
+        when(south.getCars()).thenReturn(7, 1);
+        var northLane = new LaneInbound("Li1", "Li1", NORTH, north);
+        var southLane = new LaneInbound("Li2", "Li2", SOUTH, south);
+        var sut = new SensorSnapshot(List.of(route("R1", northLane), route("R2", northLane), route("R3", southLane)), 0,
+                SystemClock.INSTANCE, new SensorSampler(Runnable::run));
+
+        sut.refresh();
+
+        assertEquals(2, sut.getLanes());
+        assertEquals(sut.laneOf(0), sut.laneOf(1));
+        assertArrayEquals(new int[]{3, 3, 7}, new int[]{sut.routePressure(0), sut.routePressure(1), sut.routePressure(2)});
+        sut.refresh();
+        assertArrayEquals(new int[]{5, 5, 1}, new int[]{sut.routePressure(0), sut.routePressure(1), sut.routePressure(2)});
+        verify(north, times(2)).getCars();
+        verify(south, times(2)).getCars();
+    }
+
+    @Test
+    void shouldKeepReadingsUntilTheyExpire() {
+        var clock = new SimulationClock();
+        Camera camera = mock(Camera.class);
+        when(camera.getCars()).thenReturn(4, 9);
+        var sut = new SensorSnapshot(List.of(route("R1", new LaneInbound("Li1", "Li1", NORTH, camera))), 1_000,
+                clock, new SensorSampler(Runnable::run));
+
+        sut.refresh();
+        clock.sleep(999);
+        sut.refresh();
+        assertEquals(4, sut.routePressure(0));
+        clock.sleep(1);
+        sut.refresh();
+        assertEquals(9, sut.routePressure(0));
+        verify(camera, times(2)).getCars();
+    }
+
+    @Test
+    void shouldReadLanesInParallel() {
+        var allReading = new CountDownLatch(2);
+        var sut = new SensorSnapshot(List.of(
+                route("R1", new LaneInbound("Li1", "Li1", NORTH, new WaitingCamera("Cam1", allReading, 2))),
+                route("R2", new LaneInbound("Li2", "Li2", SOUTH, new WaitingCamera("Cam2", allReading, 6)))), 0,
+                SystemClock.INSTANCE, new SensorSampler(Executors.newVirtualThreadPerTaskExecutor()));
+
+        sut.refresh();
+
+        assertArrayEquals(new int[]{2, 6}, sut.getPressures());
+    }
+
+    private static Route route(String id, LaneInbound lane) {
+        return new Route(id, RouteType.NORMAL, lane, emptyList(), emptyList());
+    }
+
+    // Reports its cars only when every camera of the test is being read at the same time
+    private static class WaitingCamera extends Camera {
+        private final CountDownLatch allReading;
+        private final int cars;
+
+        private WaitingCamera(String id, CountDownLatch allReading, int cars) {
+            super(id, id);
+            this.allReading = allReading;
+            this.cars = cars;
+        }
+
+        @Override
+        public int getCars() {
+            allReading.countDown();
+            try {
+                return allReading.await(5, TimeUnit.SECONDS) ? cars : -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+}
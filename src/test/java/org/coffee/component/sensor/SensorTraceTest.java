@@ -0,0 +1,148 @@
+package org.coffee.component.sensor;
+
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.simulation.Simulation;
+import org.coffee.simulation.SimulationReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SensorTraceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackRecordedReadings() throws IOException {
+        Path file = directory.resolve("trace.bin");
+        try (var writer = new SensorTraceWriter(file, 1_000)) {
+            int li1 = writer.lane("Li1");
+            int li2 = writer.lane("Li2");
+            writer.record(li1, 1_000, 5);
+            writer.record(li2, 1_500, 0);
+            writer.record(li1, 2_000, 3);
+            writer.record(li1, 300_000, 10);
+        }
+
+        var trace = SensorTrace.read(file);
+
+        assertEquals(1_000, trace.getStartMillis());
+        assertEquals(300_000, trace.getEndMillis());
+        assertEquals(List.of("Li1", "Li2"), trace.getLanes());
+        assertEquals(3, trace.getSamples("Li1"));
+        assertEquals(1, trace.getSamples("Li2"));
+        assertArrayEquals(new long[]{1_000, 2_000, 300_000}, Arrays.copyOf(trace.times(0), trace.size(0)));
+        assertArrayEquals(new int[]{5, 3, 10}, Arrays.copyOf(trace.cars(0), trace.size(0)));
+        assertArrayEquals(new long[]{1_500}, Arrays.copyOf(trace.times(1), trace.size(1)));
+        assertArrayEquals(new int[]{0}, Arrays.copyOf(trace.cars(1), trace.size(1)));
+        assertTrue(Files.size(file) < 16 + 2 * 5 + 4 * 6, "Trace has " + Files.size(file) + " bytes");
+    }
+
+    @Test
+    void shouldRejectTruncatedTrace() throws IOException {
+        Path file = directory.resolve("trace.bin");
+        try (var writer = new SensorTraceWriter(file, 0)) {
+            writer.record(writer.lane("Li1"), 1_000, 300);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThrows(IOException.class, () -> SensorTrace.read(file));
+    }
+
+    @Test
+    void shouldRejectUnknownLane() throws IOException {
+        Path file = directory.resolve("trace.bin");
+        try (var writer = new SensorTraceWriter(file, 0)) {
+            writer.record(writer.lane("Li1"), 1_000, 5);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] corrupted = Arrays.copyOf(bytes, bytes.length + 3);
+        corrupted[bytes.length] = 5;
+        Files.write(file, corrupted);
+
+        assertThrows(IOException.class, () -> SensorTrace.read(file));
+    }
+
+    @Test
+    void shouldReplayAtAcceleratedSpeed() throws IOException {
+        Path file = directory.resolve("trace.bin");
+        try (var writer = new SensorTraceWriter(file, 0)) {
+            int lane = writer.lane("Li1");
+            writer.record(lane, 1_000, 4);
+            writer.record(lane, 10_000, 7);
+        }
+        var clock = new SimulationClock();
+        var sut = new ReplayCamera("Cam1", "Cam1", SensorTrace.read(file), "Li1", clock, 0, 10);
+
+        assertEquals(0, sut.getCars());
+        clock.sleep(100);
+        assertEquals(4, sut.getCars());
+        clock.sleep(900);
+        assertEquals(7, sut.getCars());
+        assertEquals(7, sut.getCars());
+    }
+
+    @Test
+    void shouldSignalDemandAtReplayTimeOfReadingsWithCars() throws IOException {
+        Path file = directory.resolve("trace.bin");
+        try (var writer = new SensorTraceWriter(file, 0)) {
+            int lane = writer.lane("Li1");
+            writer.record(lane, 1_000, 0);
+            writer.record(lane, 2_000, 3);
+            writer.record(lane, 4_000, 5);
+        }
+        var clock = new SimulationClock();
+        var signal = new DemandSignal(clock);
+        var sut = new ReplayCamera("Cam1", "Cam1", SensorTrace.read(file), "Li1", clock, 0, 2);
+
+        sut.connect(signal);
+        clock.sleep(999);
+        assertEquals(0, signal.version());
+        clock.sleep(1);
+        assertEquals(1, signal.version());
+        clock.sleep(1_000);
+        assertEquals(2, signal.version());
+        assertEquals(5, sut.getCars());
+    }
+
+    @Test
+    void shouldReproduceSimulationFromTrace() throws IOException, IncorrectRoutesException, InterruptedException {
+        Path file = directory.resolve("trace.bin");
+        var random = new Random(11);
+        SimulationReport recorded;
+        try (var writer = new SensorTraceWriter(file, 0)) {
+            var recording = new Simulation(new SimulationClock());
+            var clock = recording.environment().clock();
+            var intersection = createComplexIntersection(WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE,
+                    (cameraId, laneId) -> new RecordingCamera(new Camera(cameraId, cameraId, random), writer, laneId, clock),
+                    recording.environment());
+            recorded = recording.run(intersection, Duration.ofHours(1));
+        }
+
+        var trace = SensorTrace.read(file);
+        var replay = new Simulation(new SimulationClock());
+        var clock = replay.environment().clock();
+        var intersection = createComplexIntersection(WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE,
+                (cameraId, laneId) -> new ReplayCamera(cameraId, cameraId, trace, laneId, clock, 0, 1), replay.environment());
+        var replayed = replay.run(intersection, Duration.ofHours(1));
+
+        assertEquals(recorded.decisions(), replayed.decisions());
+        assertEquals(recorded.greenSecondsPerRoute(), replayed.greenSecondsPerRoute());
+    }
+}
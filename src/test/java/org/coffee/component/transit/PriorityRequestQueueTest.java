@@ -0,0 +1,29 @@
+package org.coffee.component.transit;
+
+import org.coffee.component.attribute.PriorityVehicle;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriorityRequestQueueTest {
+
+    @Test
+    void shouldOrderRequestsByArrivalAndDropPassedOnes() {
+        var sut = new PriorityRequestQueue(2000);
+        var bus = new PriorityRequest(null, PriorityVehicle.BUS, 30_000);
+        var tram = new PriorityRequest(null, PriorityVehicle.TRAM, 10_000);
+        var bicycle = new PriorityRequest(null, PriorityVehicle.BICYCLE, 30_000);
+        var late = new PriorityRequest(null, PriorityVehicle.BUS, 20_000);
+        sut.add(bus);
+        sut.add(tram);
+        sut.add(bicycle);
+        sut.add(late);
+
+        assertEquals(List.of(tram, late, bus, bicycle), sut.requests());
+        assertEquals(0, sut.expire(12_000));
+        assertEquals(2, sut.expire(22_001));
+        assertEquals(List.of(bus, bicycle), sut.requests());
+    }
+}
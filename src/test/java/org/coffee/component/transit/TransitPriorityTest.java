@@ -0,0 +1,114 @@
+package org.coffee.component.transit;
+
+import org.coffee.component.attribute.PriorityVehicle;
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.intersection.Intersection;
+import org.coffee.component.metrics.IntersectionMetricsSnapshot;
+import org.coffee.component.route.Route;
+import org.coffee.component.sensor.Camera;
+import org.coffee.simulation.Simulation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TransitPriorityTest {
+
+    private SimulationClock clock;
+    private Simulation simulation;
+    private Intersection sut;
+
+    @BeforeEach
+    void setUp() throws IncorrectRoutesException {
+        clock = new SimulationClock();
+        simulation = new Simulation(clock);
+        sut = createComplexIntersection(WorkingMode.CYCLES, new Random(3), simulation.environment());
+    }
+
+    @Test
+    void shouldExtendGreenUntilVehiclePasses() throws InterruptedException {
+        int greenTime = sut.updateState();
+        Route green = sut.getCurrentCycle().getRoutes().get(0);
+
+        sut.requestPriority(green, PriorityVehicle.BUS, clock.millis() + greenTime * 1000L + 4000);
+        int extended = sut.updateState();
+
+        assertEquals("C1", sut.getCurrentCycle().getId());
+        assertEquals(greenTime + 6, extended);
+        assertEquals(1, sut.getMetrics().snapshot().transitDelayMillis().count());
+        assertEquals(0, sut.getMetrics().snapshot().transitDelayMillis().max());
+    }
+
+    @Test
+    void shouldContinueGreenWhenRequestIsTakenMidGreen() throws InterruptedException {
+        int greenTime = sut.updateState();
+        Route tram = sut.getCycles().get(2).getRoutes().get(0);
+        clock.sleep(2000);
+
+        sut.requestPriority(tram, PriorityVehicle.TRAM, clock.millis() + 60_000);
+        int rest = sut.updateState();
+
+        assertEquals("C1", sut.getCurrentCycle().getId());
+        assertEquals(greenTime - 2, rest);
+    }
+
+    @Test
+    void shouldGiveEarlyGreenAfterMinimumGreenOfCurrentCycle() throws InterruptedException {
+        sut.updateState();
+        Route tram = sut.getCycles().get(2).getRoutes().get(0);
+
+        sut.requestPriority(tram, PriorityVehicle.TRAM, clock.millis() + 8000);
+        int untilMinimumGreen = sut.updateState();
+        assertEquals("C1", sut.getCurrentCycle().getId());
+        clock.sleep(untilMinimumGreen * 1000L);
+        sut.updateState();
+
+        assertEquals("C3", sut.getCurrentCycle().getId());
+        assertTrue(tram.isAllowingTraffic());
+        assertEquals(1, sut.getMetrics().snapshot().transitDelayMillis().count());
+        sut.updateState();
+        assertEquals("C2", sut.getCurrentCycle().getId());
+    }
+
+    @Test
+    void shouldGiveEarlyGreenWhileWaitingForTraffic() throws IncorrectRoutesException {
+        sut = createComplexIntersection(WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE, (cameraId, laneId) -> mock(Camera.class),
+                simulation.environment());
+        Route tram = sut.getCycles().get(2).getRoutes().get(0);
+        clock.schedule(1000, () -> sut.requestPriority(tram, PriorityVehicle.TRAM, 30_500));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), sut::updateState);
+
+        assertEquals("C3", sut.getCurrentCycle().getId());
+        assertTrue(tram.isAllowingTraffic());
+        assertEquals(1, sut.getMetrics().snapshot().transitDelayMillis().count());
+        // decided when the tram came in reach at 20.5 s, not at the next check for traffic, then 1.5 s of red-yellow
+        assertEquals(22_000, sut.getGreenStart());
+    }
+
+    @Test
+    void shouldSaveDelayOfTramsWithinBoundedGreenChanges() throws InterruptedException {
+        Route tramRoute = sut.getCycles().get(1).getRoutes().get(0);
+        for (long arrival = 60_000; arrival < Duration.ofMinutes(30).toMillis(); arrival += 97_000) {
+            long announced = arrival;
+            clock.schedule(arrival - 20_000, () -> sut.requestPriority(tramRoute, PriorityVehicle.TRAM, announced));
+        }
+
+        simulation.run(sut, Duration.ofMinutes(30));
+
+        IntersectionMetricsSnapshot metrics = sut.getMetrics().snapshot();
+        assertTrue(metrics.transitDelayMillis().count() >= 15);
+        assertTrue(metrics.transitDelaySavedMillis().mean() > 0);
+        assertTrue(metrics.transitDelayMillis().max() <= 5000);
+        assertEquals(0, sut.getSafetyVerifier().getViolations());
+    }
+}
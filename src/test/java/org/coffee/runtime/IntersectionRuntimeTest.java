@@ -0,0 +1,105 @@
+package org.coffee.runtime;
+
+import org.coffee.component.clock.SystemClock;
+import org.coffee.component.command.CommandQueue;
+import org.coffee.component.command.IntersectionCommand;
+import org.coffee.component.intersection.Intersection;
+import org.coffee.component.metrics.IntersectionMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IntersectionRuntimeTest {
+
+    private IntersectionRuntime sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new IntersectionRuntime();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.stop();
+    }
+
+    @Test
+    void shouldIsolateFailingIntersection() throws InterruptedException {
+        Intersection failing = mockIntersection();
+        Intersection working = mockIntersection();
+        when(failing.updateState()).thenThrow(new IllegalStateException("broken"));
+        when(working.updateState()).thenReturn(60);
+
+        sut.start(failing);
+        sut.start(working);
+
+        verify(failing, timeout(1_000)).defaultSignal();
+        verify(working, timeout(1_000)).updateState();
+        assertEquals(1, sut.getActiveIntersections());
+    }
+
+    @Test
+    void shouldFinishIntersectionFailingWithError() throws InterruptedException {
+        Intersection failing = mockIntersection();
+        when(failing.updateState()).thenThrow(new StackOverflowError("broken"));
+
+        sut.start(failing);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), sut::awaitTermination);
+        verify(failing).defaultSignal();
+        assertEquals(0, sut.getActiveIntersections());
+    }
+
+    @Test
+    void shouldScheduleNextUpdateAfterGreenTime() throws InterruptedException {
+        Intersection intersection = mockIntersection();
+        when(intersection.updateState()).thenReturn(0);
+
+        sut.start(intersection);
+
+        verify(intersection, timeout(1_000).atLeast(3)).updateState();
+    }
+
+    @Test
+    void shouldSetDefaultSignalOnStop() throws InterruptedException {
+        Intersection intersection = mockIntersection();
+        when(intersection.updateState()).thenReturn(60);
+
+        sut.start(intersection);
+        verify(intersection, timeout(1_000)).updateState();
+        sut.stop();
+
+        verify(intersection).defaultSignal();
+        assertEquals(0, sut.getActiveIntersections());
+        assertThrows(IllegalStateException.class, () -> sut.start(intersection));
+    }
+
+    @Test
+    void shouldUpdateRightAwayWhenCommandIsSubmittedDuringGreen() throws InterruptedException {
+        Intersection intersection = mockIntersection();
+        when(intersection.updateState()).thenReturn(60);
+
+        sut.start(intersection);
+        verify(intersection, timeout(1_000)).updateState();
+        intersection.getCommands().submit(new IntersectionCommand.Hold());
+
+        verify(intersection, timeout(1_000).atLeast(2)).updateState();
+    }
+
+    private static Intersection mockIntersection() {
+        Intersection intersection = mock(Intersection.class);
+        when(intersection.getMetrics()).thenReturn(mock(IntersectionMetrics.class));
+        when(intersection.getCommands()).thenReturn(new CommandQueue(SystemClock.INSTANCE));
+        return intersection;
+    }
+}
@@ -0,0 +1,56 @@
+package org.coffee.simulation;
+
+import org.coffee.component.attribute.WorkingMode;
+import org.coffee.component.clock.SimulationClock;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.coffee.utils.IntersectionComponentsCreator.createComplexIntersection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulationTest {
+
+    private static final Duration SIMULATED_TIME = Duration.ofHours(6);
+
+    @ParameterizedTest
+    @EnumSource(WorkingMode.class)
+    void shouldSimulateHoursOfTrafficInSeconds(WorkingMode workingMode) throws IncorrectRoutesException, InterruptedException {
+        var report = simulate(workingMode, 7);
+
+        assertTrue(report.decisions() > 0);
+        assertTrue(report.greenSeconds() > 0);
+        assertTrue(report.greenSeconds() <= SIMULATED_TIME.toSeconds());
+        assertTrue(report.wallTimeMillis() < 10_000, "Simulation took " + report.wallTimeMillis() + " ms");
+    }
+
+    @Test
+    void shouldBeDeterministicForTheSameSeed() throws IncorrectRoutesException, InterruptedException {
+        var first = simulate(WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE, 7);
+        var second = simulate(WorkingMode.CYCLES_VARIABLE_TIME_AVOID_EMPTY_CYCLE, 7);
+
+        assertEquals(first.decisions(), second.decisions());
+        assertEquals(first.greenSeconds(), second.greenSeconds());
+        assertEquals(first.greenSecondsPerRoute(), second.greenSecondsPerRoute());
+    }
+
+    @Test
+    void shouldRejectIntersectionNotRunningOnSimulationClock() throws IncorrectRoutesException {
+        var sut = new Simulation(new SimulationClock());
+        var intersection = createComplexIntersection(WorkingMode.CYCLES, new Random(1));
+
+        assertThrows(IllegalArgumentException.class, () -> sut.run(intersection, SIMULATED_TIME));
+    }
+
+    private static SimulationReport simulate(WorkingMode workingMode, long seed) throws IncorrectRoutesException, InterruptedException {
+        var simulation = new Simulation(new SimulationClock());
+        var intersection = createComplexIntersection(workingMode, new Random(seed), simulation.environment());
+        return simulation.run(intersection, SIMULATED_TIME);
+    }
+}
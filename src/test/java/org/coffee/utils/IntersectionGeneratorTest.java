@@ -0,0 +1,89 @@
+package org.coffee.utils;
+
+import org.coffee.component.cycle.Cycle;
+import org.coffee.component.cycle.IncorrectRoutesException;
+import org.coffee.component.intersection.Intersection;
+import org.coffee.component.route.InvalidRouteException;
+import org.coffee.component.route.Route;
+import org.coffee.component.route.RouteValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.coffee.component.attribute.WorkingMode.CYCLES;
+import static org.coffee.component.attribute.WorkingMode.INTELLIGENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntersectionGeneratorTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4})
+    void shouldGenerateValidIntersections(int legs) throws IncorrectRoutesException {
+        for (int seed = 0; seed < 20; seed++) {
+            var sut = new IntersectionGenerator(seed);
+            for (int lanes = 1; lanes <= 4; lanes++) {
+                var spec = new IntersectionSpec(legs, lanes, 0.5, 0.5, 0.5, CYCLES, false);
+
+                Intersection intersection = sut.generate("I" + seed, spec);
+
+                intersection.getRoutes().forEach(RouteValidator::validateRoute);
+                assertTrue(intersection.getRoutes().size() >= legs * lanes);
+                intersection.getRoutes().forEach(route -> assertTrue(
+                        intersection.getCycles().stream().map(Cycle::getRoutes).anyMatch(routes -> routes.contains(route))));
+            }
+        }
+    }
+
+    @Test
+    void shouldGenerateSameLayoutForSameSeed() {
+        var spec = IntersectionSpec.of(4, 3, CYCLES);
+
+        List<Route> first = new IntersectionGenerator(7).generateRoutes("I", spec);
+        List<Route> second = new IntersectionGenerator(7).generateRoutes("I", spec);
+
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getId(), second.get(i).getId());
+            assertEquals(first.get(i).getType(), second.get(i).getType());
+            assertEquals(first.get(i).getPedestrianLanes().size(), second.get(i).getPedestrianLanes().size());
+        }
+    }
+
+    @Test
+    void shouldGenerateProductionScaleIntersection() throws IncorrectRoutesException {
+        var spec = new IntersectionSpec(4, 128, 1, 0, 0.5, INTELLIGENT, false);
+
+        Intersection intersection = new IntersectionGenerator(42).generate("I", spec);
+
+        assertEquals(512, intersection.getRoutes().size());
+    }
+
+    @Test
+    void shouldProduceInvalidIntersections() {
+        var spec = IntersectionSpec.of(4, 2, CYCLES).asInvalid();
+        for (int seed = 0; seed < 20; seed++) {
+            var sut = new IntersectionGenerator(seed);
+            assertThrows(InvalidRouteException.class, () -> sut.generate("I", spec));
+        }
+    }
+
+    @Test
+    void shouldConnectNeighboursInGrid() throws IncorrectRoutesException {
+        var spec = IntersectionSpec.of(4, 2, CYCLES);
+
+        CityGrid grid = new IntersectionGenerator(1).generateGrid(3, 4, spec);
+
+        assertEquals(12, grid.intersections().size());
+        assertEquals("G1-2", grid.intersection(1, 2).getId());
+        // 17 neighbouring pairs, both directions, two inbound lanes per leg
+        assertEquals(17 * 2 * 2, grid.links().size());
+        grid.links().forEach(link -> {
+            assertTrue(link.from().getRoutes().stream().anyMatch(route -> route.getOutboundLanes().contains(link.exit())));
+            assertTrue(link.to().getRoutes().stream().anyMatch(route -> route.getInboundLane() == link.entry()));
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package org.coffee.utils;
 
+import org.coffee.component.attribute.Location;
 import org.coffee.component.intersection.IntersectionUtils;
 import org.coffee.component.lane.Lane;
 import org.coffee.component.lane.LaneInbound;
@@ -13,6 +14,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import java.util.Set;
+
 import static java.util.Collections.singletonList;
 import static org.coffee.component.attribute.Location.EAST;
 import static org.coffee.component.attribute.Location.NORTH;
@@ -21,6 +24,7 @@ import static org.coffee.component.attribute.Location.WEST;
 import static org.coffee.component.attribute.RouteType.CONDITIONAL;
 import static org.coffee.component.attribute.RouteType.ISOLATED;
 import static org.coffee.component.attribute.RouteType.NORMAL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.MockitoAnnotations.openMocks;
@@ -90,6 +94,21 @@ class IntersectionUtilsTest {
         assertFalse(IntersectionUtils.isAllowedToGo(route, route2));
     }
 
+    @Test
+    void shouldMatchLegacyDirectionRulesForEveryCombination() {
+        for (Location from1 : Location.values()) {
+            for (Location to1 : Location.values()) {
+                for (Location from2 : Location.values()) {
+                    for (Location to2 : Location.values()) {
+                        assertEquals(legacyIsNotCrossingDirection(from1, to1, from2, to2),
+                                IntersectionUtils.isNotCrossingDirection(from1, to1, from2, to2),
+                                from1 + "->" + to1 + " vs " + from2 + "->" + to2);
+                    }
+                }
+            }
+        }
+    }
+
     private Route getSimpleRoute() {
         LaneInbound inboundLane = new LaneInbound("id", "name", NORTH, camera1);
         LaneOutbound outboundLane = new LaneOutbound("id", "name", SOUTH, true);
@@ -140,4 +159,177 @@ class IntersectionUtilsTest {
         return new Route("id2", ISOLATED, inboundLane, singletonList(outboundLane), singletonList(trafficLight), singletonList(pedestrianLane));
     }
 
-}
\ No newline at end of file
+    // Original if/else implementation, kept as a reference for the lookup table
+    private static boolean legacyIsNotCrossingDirection(Location from1, Location to1, Location from2, Location to2) {
+        if (from1 == SOUTH) {
+            if (to1 == NORTH) {
+                if (from2 == SOUTH) {
+                    return Set.of(NORTH, WEST, EAST, SOUTH).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(SOUTH, WEST).contains(to2);
+                } else if (from2 == EAST) {
+                    return to2 == EAST;
+                } else if (from2 == WEST) {
+                    return Set.of(SOUTH, WEST).contains(to2);
+                }
+            } else if (to1 == SOUTH) {
+                if (from2 == SOUTH) {
+                    return Set.of(NORTH, WEST, EAST, SOUTH).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(EAST, WEST, NORTH).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(EAST, WEST, NORTH).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(EAST, WEST, NORTH).contains(to2);
+                }
+            } else if (to1 == EAST) {
+                if (from2 == SOUTH) {
+                    return Set.of(NORTH, WEST, EAST, SOUTH).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(SOUTH, WEST, NORTH).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(NORTH, SOUTH, WEST).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(SOUTH, NORTH, WEST).contains(to2);
+                }
+            } else if (to1 == WEST) {
+                if (from2 == SOUTH) {
+                    return Set.of(NORTH, EAST, WEST, SOUTH).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(NORTH, EAST).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(NORTH, EAST).contains(to2);
+                } else if (from2 == WEST) {
+                    return to2 == SOUTH;
+                }
+            }
+        } else if (from1 == NORTH) {
+            if (to1 == SOUTH) {
+                if (from2 == SOUTH) {
+                    return Set.of(NORTH, EAST).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(SOUTH, WEST, EAST, NORTH).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(NORTH, EAST).contains(to2);
+                } else if (from2 == WEST) {
+                    return to2 == WEST;
+                }
+            } else if (to1 == NORTH) {
+                if (from2 == SOUTH) {
+                    return Set.of(EAST, WEST, SOUTH).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(SOUTH, WEST, EAST, NORTH).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(EAST, WEST, SOUTH).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(EAST, WEST, SOUTH).contains(to2);
+                }
+            } else if (to1 == EAST) {
+                if (from2 == SOUTH) {
+                    return Set.of(SOUTH, WEST).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(SOUTH, WEST, EAST, NORTH).contains(to2);
+                } else if (from2 == EAST) {
+                    return to2 == NORTH;
+                } else if (from2 == WEST) {
+                    return Set.of(SOUTH, WEST).contains(to2);
+                }
+            } else if (to1 == WEST) {
+                if (from2 == SOUTH) {
+                    return Set.of(NORTH, EAST, SOUTH).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(NORTH, EAST, WEST, SOUTH).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(NORTH, SOUTH, EAST).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(EAST, NORTH, SOUTH).contains(to2);
+                }
+            }
+        } else if (from1 == EAST) {
+            if (to1 == SOUTH) {
+                if (from2 == SOUTH) {
+                    return to2 == EAST;
+                } else if (from2 == NORTH) {
+                    return Set.of(NORTH, WEST).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(NORTH, SOUTH, WEST, EAST).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(NORTH, WEST).contains(to2);
+                }
+            } else if (to1 == NORTH) {
+                if (from2 == SOUTH) {
+                    return Set.of(EAST, WEST, SOUTH).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(SOUTH, WEST, EAST).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(NORTH, SOUTH, WEST, EAST).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(SOUTH, EAST, WEST).contains(to2);
+                }
+            } else if (to1 == EAST) {
+                if (from2 == SOUTH) {
+                    return Set.of(NORTH, WEST, SOUTH).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(NORTH, WEST, SOUTH).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(NORTH, SOUTH, WEST, EAST).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(NORTH, WEST, SOUTH).contains(to2);
+                }
+            } else if (to1 == WEST) {
+                if (from2 == SOUTH) {
+                    return Set.of(SOUTH, EAST).contains(to2);
+                } else if (from2 == NORTH) {
+                    return to2 == NORTH;
+                } else if (from2 == EAST) {
+                    return Set.of(NORTH, SOUTH, WEST, EAST).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(EAST, SOUTH).contains(to2);
+                }
+            }
+        } else if (from1 == WEST) {
+            if (to1 == SOUTH) {
+                if (from2 == SOUTH) {
+                    return Set.of(WEST, NORTH, EAST).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(WEST, NORTH, EAST).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(WEST, NORTH, EAST).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(NORTH, SOUTH, EAST, WEST).contains(to2);
+                }
+            } else if (to1 == NORTH) {
+                if (from2 == SOUTH) {
+                    return Set.of(EAST, WEST).contains(to2);
+                } else if (from2 == NORTH) {
+                    return to2 == WEST;
+                } else if (from2 == EAST) {
+                    return Set.of(SOUTH, WEST).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(NORTH, SOUTH, EAST, WEST).contains(to2);
+                }
+            } else if (to1 == EAST) {
+                if (from2 == SOUTH) {
+                    return to2 == SOUTH;
+                } else if (from2 == NORTH) {
+                    return Set.of(NORTH, WEST).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(NORTH, WEST).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(SOUTH, NORTH, EAST, WEST).contains(to2);
+                }
+            } else if (to1 == WEST) {
+                if (from2 == SOUTH) {
+                    return Set.of(NORTH, SOUTH, EAST).contains(to2);
+                } else if (from2 == NORTH) {
+                    return Set.of(NORTH, SOUTH, WEST).contains(to2);
+                } else if (from2 == EAST) {
+                    return Set.of(NORTH, SOUTH, WEST).contains(to2);
+                } else if (from2 == WEST) {
+                    return Set.of(NORTH, SOUTH, WEST, EAST).contains(to2);
+                }
+            }
+        }
+        return false;
+    }
+}